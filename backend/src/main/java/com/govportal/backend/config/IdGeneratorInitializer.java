@@ -0,0 +1,48 @@
+package com.govportal.backend.config;
+
+import com.govportal.backend.entity.Application;
+import com.govportal.backend.entity.Document;
+import com.govportal.backend.entity.DocumentProcessingJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Makes sure the table-backed id generators start above the ids that were handed out by
+ * AUTO_INCREMENT before the switch to pooled ids. Safe to run on every start and on several
+ * nodes at once, since the stored value only ever moves up. Runs after Hibernate has updated
+ * the schema and before the web server starts taking requests. A failure aborts startup: an unseeded
+ * generator would start at 1 and hand out ids that already exist.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class IdGeneratorInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGeneratorInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdGeneratorInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void seedIds() {
+        seed("applications", "applications", "application_id", Application.ID_ALLOCATION_SIZE);
+        seed("documents", "documents", "document_id", Document.ID_ALLOCATION_SIZE);
+        seed("document_processing_jobs", "document_processing_jobs", "job_id", DocumentProcessingJob.ID_ALLOCATION_SIZE);
+    }
+
+    private void seed(String sequenceName, String table, String idColumn, int allocationSize) {
+        // The pooled optimizer hands out (next_val - allocationSize, next_val], so leave a full block of headroom
+        jdbcTemplate.update(
+                "INSERT INTO id_generators (sequence_name, next_val) " +
+                "SELECT ?, COALESCE(MAX(" + idColumn + "), 0) + ? + 1 FROM " + table + " " +
+                "ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val))",
+                sequenceName, allocationSize);
+        logger.debug("Seeded the {} id generator", sequenceName);
+    }
+}
@@ -46,7 +46,7 @@ public class SecurityConfig {
                 .requestMatchers("/api/auth/**", "/api/admin/login").permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/feedback").permitAll()
                 // Add the following two lines to secure the new endpoints
-                .requestMatchers(HttpMethod.GET, "/api/feedback").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.GET, "/api/feedback", "/api/feedback/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/api/feedback/**").hasRole("ADMIN")
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
@@ -64,6 +64,8 @@ public class SecurityConfig {
         config.addAllowedOrigin("http://localhost:5173");
         config.addAllowedHeader("*");
         config.addAllowedMethod("*");
+        config.addExposedHeader("X-Next-Cursor"); // Pagination cursor for the admin application and feedback lists
+        config.addExposedHeader("Retry-After"); // Rate-limited and overloaded feedback submissions
         source.registerCorsConfiguration("/**", config);
         return source;
     }
@@ -1,13 +1,26 @@
 package com.govportal.backend.controller;
 
 import com.govportal.backend.dto.AdminApplicationListItemDTO;
+import com.govportal.backend.dto.AdminApplicationPageDTO;
+import com.govportal.backend.dto.ApplicationSearchPageDTO;
+import com.govportal.backend.dto.ApplicationSearchResultDTO;
+import com.govportal.backend.dto.BulkDecisionDTO;
+import com.govportal.backend.dto.BulkDecisionResultDTO;
 import com.govportal.backend.dto.DashboardStatsDTO;
+import com.govportal.backend.entity.Application;
+import com.govportal.backend.security.TokenRevocationService;
 import com.govportal.backend.service.AdminService;
 
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -16,14 +29,61 @@ import java.util.List;
 public class AdminController {
 
     private final AdminService adminService;
+    private final TokenRevocationService tokenRevocationService;
 
-    public AdminController(AdminService adminService) {
+    public AdminController(AdminService adminService, TokenRevocationService tokenRevocationService) {
         this.adminService = adminService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
+    // Keyset pagination: pass the X-Next-Cursor header of one response as afterId to get the next page.
+    // dataKey/dataValue filter on an indexed serviceSpecificData key of the given serviceId (exact match).
     @GetMapping("/applications")
-    public ResponseEntity<List<AdminApplicationListItemDTO>> getAllApplications() {
-        return ResponseEntity.ok(adminService.getAllApplications());
+    public ResponseEntity<List<AdminApplicationListItemDTO>> getAllApplications(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) Application.ApplicationStatus status,
+            @RequestParam(required = false) Application.PaymentStatus paymentStatus,
+            @RequestParam(required = false) Long serviceId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String dataKey,
+            @RequestParam(required = false) String dataValue) {
+        AdminApplicationPageDTO page = adminService.getApplicationsPage(afterId, size, status, paymentStatus, serviceId,
+                from, to, dataKey, dataValue);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header("X-Next-Cursor", page.getNextCursor().toString());
+        }
+        return response.body(page.getItems());
+    }
+
+    // Search by the applicant's NID and/or name prefix (results in name order); pass the X-Next-Cursor header
+    // back as cursor for the next page. A page can have fewer than size rows and still be followed by another.
+    @GetMapping("/applications/search")
+    public ResponseEntity<List<ApplicationSearchResultDTO>> searchApplications(
+            @RequestParam(required = false) String nid,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Long serviceId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        ApplicationSearchPageDTO page = adminService.searchApplications(nid, name, serviceId, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header("X-Next-Cursor", page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    // Full dump for auditors, streamed as NDJSON (default) or CSV without buffering the table in memory
+    @GetMapping("/applications/export")
+    public void exportApplications(@RequestParam(defaultValue = "NDJSON") AdminService.ExportFormat format,
+                                   HttpServletResponse response) throws IOException {
+        String extension = format.name().toLowerCase();
+        response.setContentType(format == AdminService.ExportFormat.CSV ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"applications." + extension + "\"");
+        adminService.exportApplications(format, response.getOutputStream());
     }
 
     @GetMapping("/stats")
@@ -42,5 +102,18 @@ public class AdminController {
         String adminUsername = principal.getName();
         return ResponseEntity.ok(adminService.rejectApplication(id, adminUsername));
     }
-}
 
+    // Approves or rejects a list of applications at once and reports the outcome per ID
+    @PutMapping("/applications/decisions")
+    public ResponseEntity<List<BulkDecisionResultDTO>> applyBulkDecision(@Valid @RequestBody BulkDecisionDTO bulkDecisionDTO, Authentication principal) {
+        String adminUsername = principal.getName();
+        return ResponseEntity.ok(adminService.applyBulkDecision(bulkDecisionDTO.getApplicationIds(), bulkDecisionDTO.getDecision(), adminUsername));
+    }
+
+    // Signs a user or admin out everywhere by rejecting every token issued to them so far; they can log in again
+    @PostMapping("/sessions/{subject}/revoke")
+    public ResponseEntity<Void> revokeSessions(@PathVariable String subject) {
+        tokenRevocationService.revoke(subject);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -2,6 +2,7 @@ package com.govportal.backend.controller;
 
 import com.govportal.backend.dto.ApplicationDTO;
 import com.govportal.backend.dto.ApplicationListItemDTO;
+import com.govportal.backend.dto.BatchApplicationResultDTO;
 import com.govportal.backend.entity.Application;
 import com.govportal.backend.service.ApplicationService;
 
@@ -30,6 +31,13 @@ public class ApplicationController {
         return ResponseEntity.ok(newApplication);
     }
 
+    // Submits several applications in one request; each item gets its own result (applicationId or error)
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchApplicationResultDTO>> createApplications(@RequestBody List<ApplicationDTO> applicationDTOs, Authentication principal) {
+        String userEmail = principal.getName();
+        return ResponseEntity.ok(applicationService.createApplications(applicationDTOs, userEmail));
+    }
+
     @GetMapping("/my-applications")
     public ResponseEntity<List<ApplicationListItemDTO>> getMyApplications(Authentication principal) {
         String userEmail = principal.getName();
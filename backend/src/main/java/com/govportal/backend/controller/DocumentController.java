@@ -4,25 +4,61 @@ import com.govportal.backend.entity.Application;
 import com.govportal.backend.entity.Document;
 import com.govportal.backend.repository.ApplicationRepository;
 import com.govportal.backend.repository.DocumentRepository;
+import com.govportal.backend.service.DocumentProcessingService;
+import com.govportal.backend.service.DocumentUploadService;
 import com.govportal.backend.service.FileStorageService;
+import com.govportal.backend.service.StoredFile;
 
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/documents")
 @CrossOrigin(origins = "*")
 public class DocumentController {
 
+    // Request attributes understood by Tomcat's NIO connector for sendfile (kernel zero-copy) responses
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final FileStorageService fileStorageService;
     private final DocumentRepository documentRepository;
     private final ApplicationRepository applicationRepository;
+    private final DocumentProcessingService documentProcessingService;
+    private final DocumentUploadService documentUploadService;
 
-    public DocumentController(FileStorageService fileStorageService, DocumentRepository documentRepository, ApplicationRepository applicationRepository) {
+    @Value("${file.max-upload-size:20MB}")
+    private DataSize maxUploadSize;
+
+    public DocumentController(FileStorageService fileStorageService, DocumentRepository documentRepository, ApplicationRepository applicationRepository,
+                              DocumentProcessingService documentProcessingService, DocumentUploadService documentUploadService) {
         this.fileStorageService = fileStorageService;
         this.documentRepository = documentRepository;
         this.applicationRepository = applicationRepository;
+        this.documentProcessingService = documentProcessingService;
+        this.documentUploadService = documentUploadService;
     }
 
     @PostMapping("/upload")
@@ -33,16 +69,144 @@ public class DocumentController {
         Application application = applicationRepository.findById(applicationId)
                 .orElseThrow(() -> new RuntimeException("Application not found with ID: " + applicationId));
 
-        String fileName = fileStorageService.storeFile(file);
+        StoredFile storedFile = fileStorageService.storeFile(file);
+        String fileName = storedFile.getStoredName();
+
+        saveDocument(application, documentType, file.getOriginalFilename(), storedFile);
+
+        return ResponseEntity.ok().body("File uploaded successfully: " + fileName);
+    }
+
+    /**
+     * Uploads several documents for one application in a single request. documentTypes[i] describes files[i].
+     * The files are stored concurrently and all Document rows are inserted in one transaction, so either every
+     * document is recorded or none is.
+     */
+    @PostMapping("/upload-batch")
+    public ResponseEntity<List<Map<String, Object>>> uploadFiles(@RequestParam("files") List<MultipartFile> files,
+                                                                 @RequestParam("applicationId") Long applicationId,
+                                                                 @RequestParam("documentTypes") List<String> documentTypes) {
+        Application application = applicationRepository.findById(applicationId)
+                .orElseThrow(() -> new RuntimeException("Application not found with ID: " + applicationId));
+
+        List<Map<String, Object>> body = new ArrayList<>();
+        for (Document doc : documentUploadService.uploadAll(application, files, documentTypes)) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("documentId", doc.getId());
+            item.put("documentType", doc.getDocumentType());
+            item.put("fileName", doc.getFilePath());
+            item.put("sha256", doc.getContentHash());
+            body.add(item);
+        }
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Streaming alternative to /upload: the raw request body is the file (no multipart), so it is read once,
+     * straight from the socket into the upload directory. Size and SHA-256 are computed on the fly and the
+     * upload is rejected as soon as it exceeds file.max-upload-size.
+     */
+    @PostMapping("/stream")
+    public ResponseEntity<Map<String, Object>> uploadFileStream(@RequestParam("applicationId") Long applicationId,
+                                                                @RequestParam("documentType") String documentType,
+                                                                @RequestParam("fileName") String originalFileName,
+                                                                HttpServletRequest request) throws IOException {
+        long maxBytes = maxUploadSize.toBytes();
+        if (request.getContentLengthLong() > maxBytes) {
+            throw new RuntimeException("File exceeds the maximum upload size of " + maxBytes + " bytes.");
+        }
+
+        Application application = applicationRepository.findById(applicationId)
+                .orElseThrow(() -> new RuntimeException("Application not found with ID: " + applicationId));
 
+        StoredFile storedFile = fileStorageService.storeStream(request.getInputStream(), originalFileName, maxBytes);
+        Document doc = saveDocument(application, documentType, originalFileName, storedFile);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("documentId", doc.getId());
+        body.put("fileName", storedFile.getStoredName());
+        body.put("size", storedFile.getSize());
+        body.put("sha256", storedFile.getContentHash());
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Serves a stored document to an admin or to the citizen who owns the application.
+     * Conditional requests (If-None-Match / If-Modified-Since) are answered with 304, Range requests with 206
+     * (handled by Spring's ResourceRegion support), and full downloads are handed to Tomcat's sendfile when
+     * available so the file never passes through the heap. variant=preview|compressed serves the derivatives
+     * produced by the background pipeline.
+     */
+    @GetMapping("/{id}/content")
+    public ResponseEntity<Resource> downloadFile(@PathVariable Long id,
+                                                 @RequestParam(defaultValue = "false") boolean inline,
+                                                 @RequestParam(defaultValue = "original") String variant,
+                                                 Authentication principal,
+                                                 WebRequest webRequest,
+                                                 HttpServletRequest request) throws IOException {
+        Document doc = documentRepository.findByIdWithOwner(id)
+                .orElseThrow(() -> new RuntimeException("Document not found with ID: " + id));
+
+        boolean isAdmin = principal.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+        if (!isAdmin && !doc.getApplication().getUser().getEmail().equals(principal.getName())) {
+            throw new AccessDeniedException("You do not have permission to view this document.");
+        }
+
+        // Reviewers can ask for the generated preview or recompressed copy; fall back to the original until it exists
+        String storedName = doc.getFilePath();
+        String downloadName = doc.getFileName();
+        String derivativePath = "preview".equals(variant) ? doc.getPreviewPath()
+                : "compressed".equals(variant) ? doc.getCompressedPath() : null;
+        if (derivativePath != null) {
+            storedName = derivativePath;
+            downloadName = downloadName + "." + variant + ".jpg";
+        }
+
+        Resource resource = fileStorageService.loadAsResource(storedName);
+        long contentLength = resource.contentLength();
+        long lastModified = resource.lastModified();
+        // Stored files are never rewritten in place, so the content hash (or unique stored name) is a strong validator
+        String eTag = "\"" + (derivativePath == null && doc.getContentHash() != null ? doc.getContentHash() : storedName) + "\"";
+
+        if (webRequest.checkNotModified(eTag, lastModified)) {
+            return null; // 304 Not Modified has already been set
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaTypeFactory.getMediaType(downloadName).orElse(MediaType.APPLICATION_OCTET_STREAM))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.builder(inline ? "inline" : "attachment")
+                        .filename(downloadName, StandardCharsets.UTF_8).build().toString())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .eTag(eTag)
+                .lastModified(lastModified);
+
+        boolean fullGet = HttpMethod.GET.matches(request.getMethod()) && request.getHeader(HttpHeaders.RANGE) == null;
+        // Zero-copy is only possible when the backend keeps the document as a local file
+        if (fullGet && resource.isFile() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, resource.getFile().getAbsolutePath());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, contentLength);
+            return response.contentLength(contentLength).build();
+        }
+
+        return response.body(resource);
+    }
+
+    private Document saveDocument(Application application, String documentType, String originalFileName, StoredFile storedFile) {
         Document doc = new Document();
         doc.setApplication(application);
         doc.setDocumentType(documentType);
-        doc.setFileName(file.getOriginalFilename());
-        doc.setFilePath(fileName); // Store the unique name
-
-        documentRepository.save(doc);
-
-        return ResponseEntity.ok().body("File uploaded successfully: " + fileName);
+        doc.setFileName(originalFileName);
+        doc.setFilePath(storedFile.getStoredName()); // Store the unique name
+        doc.setContentHash(storedFile.getContentHash());
+        // Thumbnailing, validation and recompression run in the background (DocumentProcessingService)
+        try {
+            return documentProcessingService.saveAndEnqueue(doc);
+        } catch (RuntimeException ex) {
+            // No document points at the stored file
+            fileStorageService.discardFile(storedFile);
+            throw ex;
+        }
     }
 }
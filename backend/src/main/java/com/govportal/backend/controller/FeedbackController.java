@@ -2,15 +2,22 @@ package com.govportal.backend.controller;
 
 import com.govportal.backend.dto.FeedbackDTO;
 import com.govportal.backend.dto.FeedbackListItemDTO; // Import the new DTO
+import com.govportal.backend.dto.FeedbackPageDTO;
+import com.govportal.backend.dto.FeedbackSearchHitDTO;
 import com.govportal.backend.entity.Feedback;
+import com.govportal.backend.service.FeedbackRateLimiter;
 import com.govportal.backend.service.FeedbackService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List; // Import List
 import java.util.Map; // Import Map
 
@@ -19,24 +26,68 @@ import java.util.Map; // Import Map
 @CrossOrigin(origins = "*")
 public class FeedbackController {
 
+    private static final String BUFFER_FULL_RETRY_AFTER_SECONDS = "5";
+
     private final FeedbackService feedbackService;
+    private final FeedbackRateLimiter feedbackRateLimiter;
 
-    public FeedbackController(FeedbackService feedbackService) {
+    public FeedbackController(FeedbackService feedbackService, FeedbackRateLimiter feedbackRateLimiter) {
         this.feedbackService = feedbackService;
+        this.feedbackRateLimiter = feedbackRateLimiter;
     }
 
+    // Returns 202 once the submission is buffered; 429 when the client is over its rate, 503 when the buffer is full
     @PostMapping
-    public ResponseEntity<Feedback> submitFeedback(@Valid @RequestBody FeedbackDTO feedbackDTO,
-            Authentication principal) {
+    public ResponseEntity<Map<String, String>> submitFeedback(@Valid @RequestBody FeedbackDTO feedbackDTO,
+            Authentication principal, HttpServletRequest request) {
+        // Behind a reverse proxy, server.forward-headers-strategy=native makes this the client's address
+        long retryAfter = feedbackRateLimiter.tryAcquire(request.getRemoteAddr());
+        if (retryAfter > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter))
+                    .body(Map.of("message", "Too many submissions. Please try again later."));
+        }
+
         String userEmail = (principal != null) ? principal.getName() : null;
-        Feedback savedFeedback = feedbackService.saveFeedback(feedbackDTO, userEmail);
-        return new ResponseEntity<>(savedFeedback, HttpStatus.CREATED);
+        if (!feedbackService.submitFeedback(feedbackDTO, userEmail)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, BUFFER_FULL_RETRY_AFTER_SECONDS)
+                    .body(Map.of("message", "Feedback is temporarily not being accepted. Please try again shortly."));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("message", "Feedback received."));
     }
 
-    // Add the following methods
+    // Newest first, keyset paginated: pass the X-Next-Cursor header of one response as beforeId to get older feedback
     @GetMapping
-    public ResponseEntity<List<FeedbackListItemDTO>> getAllFeedback() {
-        return ResponseEntity.ok(feedbackService.getAllFeedback());
+    public ResponseEntity<List<FeedbackListItemDTO>> getAllFeedback(
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) Feedback.FeedbackStatus status,
+            @RequestParam(required = false) Feedback.FeedbackType feedbackType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        FeedbackPageDTO page = feedbackService.getFeedbackPage(beforeId, size, status, feedbackType, from, to);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header("X-Next-Cursor", page.getNextCursor().toString());
+        }
+        return response.body(page.getItems());
+    }
+
+    // Ranked keyword search over subject and message, e.g. /api/feedback/search?q=water supply&status=New
+    @GetMapping("/search")
+    public ResponseEntity<List<FeedbackSearchHitDTO>> searchFeedback(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Feedback.FeedbackStatus status,
+            @RequestParam(required = false) Feedback.FeedbackType feedbackType) {
+        return ResponseEntity.ok(feedbackService.searchFeedback(query, size, status, feedbackType));
+    }
+
+    // The full message, for opening one item from the inbox
+    @GetMapping("/{id}")
+    public ResponseEntity<FeedbackListItemDTO> getFeedback(@PathVariable Long id) {
+        return ResponseEntity.ok(feedbackService.getFeedback(id));
     }
 
     @PutMapping("/{id}/status")
@@ -52,4 +103,4 @@ public class FeedbackController {
                                                                                                                      // service
         return ResponseEntity.ok(updatedFeedbackDTO); // Return the DTO
     }
-}
\ No newline at end of file
+}
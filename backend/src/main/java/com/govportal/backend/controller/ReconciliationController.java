@@ -0,0 +1,68 @@
+package com.govportal.backend.controller;
+
+import com.govportal.backend.entity.Payment;
+import com.govportal.backend.entity.ReconciliationItem;
+import com.govportal.backend.entity.ReconciliationReport;
+import com.govportal.backend.service.ReconciliationService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/reconciliations")
+@CrossOrigin(origins = "*")
+public class ReconciliationController {
+
+    private final ReconciliationService reconciliationService;
+
+    public ReconciliationController(ReconciliationService reconciliationService) {
+        this.reconciliationService = reconciliationService;
+    }
+
+    /**
+     * Starts reconciling a settlement file. The request body is the raw CSV (no multipart, so files of any size
+     * are streamed to disk); the run continues in the background and the RUNNING report is returned with 202.
+     */
+    @PostMapping
+    public ResponseEntity<ReconciliationReport> startReconciliation(
+            @RequestParam Payment.PaymentMethod paymentMethod,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String fileName,
+            HttpServletRequest request) throws IOException {
+        ReconciliationReport report = reconciliationService.startReconciliation(paymentMethod, from, to, fileName,
+                request.getInputStream());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(report);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ReconciliationReport>> getRecentReports() {
+        return ResponseEntity.ok(reconciliationService.getRecentReports());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ReconciliationReport> getReport(@PathVariable Long id) {
+        return ResponseEntity.ok(reconciliationService.getReport(id));
+    }
+
+    // Keyset pagination like /api/admin/applications: pass X-Next-Cursor back as afterId
+    @GetMapping("/{id}/items")
+    public ResponseEntity<List<ReconciliationItem>> getItems(@PathVariable Long id,
+                                                             @RequestParam(required = false) ReconciliationItem.ItemType type,
+                                                             @RequestParam(required = false) Long afterId,
+                                                             @RequestParam(defaultValue = "100") int size) {
+        List<ReconciliationItem> items = reconciliationService.getItems(id, type, afterId, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (items.size() == Math.max(1, Math.min(size, ReconciliationService.MAX_PAGE_SIZE))) {
+            response.header("X-Next-Cursor", items.get(items.size() - 1).getId().toString());
+        }
+        return response.body(items);
+    }
+}
@@ -1,12 +1,16 @@
 package com.govportal.backend.dto;
 
 import com.govportal.backend.entity.Application;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 import java.util.Map;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor // Used by the constructor-expression queries in ApplicationRepository; keep field order in sync
 public class AdminApplicationListItemDTO {
     private Long applicationId;
     private Long userId;
@@ -0,0 +1,16 @@
+package com.govportal.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminApplicationPageDTO {
+    private List<AdminApplicationListItemDTO> items;
+    // applicationId to pass as afterId for the next page; null when this is the last page
+    private Long nextCursor;
+}
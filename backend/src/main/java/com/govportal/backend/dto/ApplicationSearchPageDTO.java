@@ -0,0 +1,16 @@
+package com.govportal.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApplicationSearchPageDTO {
+    private List<ApplicationSearchResultDTO> items;
+    // Opaque value to pass as cursor for the next page; null when this is the last page
+    private String nextCursor;
+}
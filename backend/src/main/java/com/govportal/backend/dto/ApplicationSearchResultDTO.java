@@ -0,0 +1,25 @@
+package com.govportal.backend.dto;
+
+import com.govportal.backend.entity.Application;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// One row of the admin application search; open the application for its full details
+@Data
+@NoArgsConstructor
+@AllArgsConstructor // Built from ApplicationRepository.SEARCH_RESULT_COLUMNS; keep field order in sync
+public class ApplicationSearchResultDTO {
+    private Long applicationId;
+    private Long serviceId;
+    private String serviceName;
+    private LocalDate submissionDate;
+    private Application.ApplicationStatus status;
+    private Application.PaymentStatus paymentStatus;
+    private Long citizenProfileId;
+    private String applicantName;
+    private String nidNumber;
+    private LocalDate dateOfBirth;
+}
@@ -0,0 +1,17 @@
+package com.govportal.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchApplicationResultDTO {
+    // Position of the item in the submitted list
+    private int index;
+    // Set when the application was created
+    private Long applicationId;
+    // Set when the item was rejected
+    private String error;
+}
@@ -0,0 +1,19 @@
+package com.govportal.backend.dto;
+
+import com.govportal.backend.entity.Application;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkDecisionDTO {
+
+    @NotEmpty(message = "At least one application ID is required")
+    private List<Long> applicationIds;
+
+    // APPROVED or REJECTED
+    @NotNull(message = "Decision is required")
+    private Application.ApplicationStatus decision;
+}
@@ -0,0 +1,15 @@
+package com.govportal.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDecisionResultDTO {
+    private Long applicationId;
+    private boolean updated;
+    // Reason the application was not updated, null when it was
+    private String error;
+}
@@ -16,6 +16,8 @@ public class FeedbackDTO {
     @Size(max = 255, message = "Subject cannot be longer than 255 characters")
     private String subject;
 
+    // The column is TEXT (64 KB); 10,000 characters fit even at 4 bytes per character
     @NotEmpty(message = "Message is required")
+    @Size(max = 10000, message = "Message cannot be longer than 10000 characters")
     private String message;
 }
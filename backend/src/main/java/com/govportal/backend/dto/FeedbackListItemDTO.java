@@ -1,17 +1,24 @@
 package com.govportal.backend.dto;
 
 import com.govportal.backend.entity.Feedback;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.sql.Timestamp;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class FeedbackListItemDTO {
     private Long id;
     private String userEmail;
     private Feedback.FeedbackType feedbackType;
     private String subject;
+    // In inbox pages only the first FeedbackService.PREVIEW_LENGTH characters; see messageTruncated
     private String message;
     private Feedback.FeedbackStatus status;
     private Timestamp submissionDate;
     private Timestamp updatedAt;
+    // True when message is a preview; GET /api/feedback/{id} returns the full text
+    private boolean messageTruncated;
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.govportal.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedbackPageDTO {
+    private List<FeedbackListItemDTO> items;
+    // feedbackId to pass as beforeId for the next (older) page; null when this is the last page
+    private Long nextCursor;
+}
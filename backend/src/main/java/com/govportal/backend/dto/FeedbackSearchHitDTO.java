@@ -0,0 +1,20 @@
+package com.govportal.backend.dto;
+
+import com.govportal.backend.entity.Feedback;
+import lombok.Data;
+
+import java.sql.Timestamp;
+
+// One ranked search result. highlightedSubject and snippet are HTML-escaped, with matched words wrapped in <mark>
+@Data
+public class FeedbackSearchHitDTO {
+    private Long id;
+    private String userEmail;
+    private Feedback.FeedbackType feedbackType;
+    private String subject;
+    private Feedback.FeedbackStatus status;
+    private Timestamp submissionDate;
+    private double score;
+    private String highlightedSubject;
+    private String snippet;
+}
@@ -1,5 +1,6 @@
 package com.govportal.backend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.sql.Timestamp;
@@ -7,6 +8,7 @@ import java.sql.Timestamp;
 @Entity
 @Table(name = "admins")
 @Data
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Admin {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -10,12 +10,25 @@ import java.time.LocalDate;
 import java.util.Map;
 
 @Entity
-@Table(name = "applications")
+@Table(name = "applications", indexes = {
+        // Admin list filters; application_id is last so keyset pagination can walk each index in order
+        @Index(name = "idx_applications_status_payment", columnList = "status, payment_status, application_id"),
+        @Index(name = "idx_applications_service_status", columnList = "service_id, status, application_id"),
+        @Index(name = "idx_applications_submission_date", columnList = "submission_date, application_id"),
+        // Admin search: from a profile found by NID or name to its applications, optionally for one service
+        @Index(name = "idx_applications_profile_service", columnList = "citizen_profile_id, service_id, application_id")
+})
 @Data
 public class Application {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Table-backed pooled ids (blocks of 50) instead of IDENTITY so Hibernate can batch inserts.
+    // The id_generators row is seeded above MAX(application_id) at startup by IdGeneratorInitializer.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "application_id_gen")
+    @TableGenerator(name = "application_id_gen", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "applications", allocationSize = Application.ID_ALLOCATION_SIZE)
     @Column(name = "application_id")
     private Long applicationId;
 
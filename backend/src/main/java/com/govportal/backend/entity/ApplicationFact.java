@@ -0,0 +1,36 @@
+package com.govportal.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// One indexed value from an application's serviceSpecificData, written by ApplicationFactService
+@Entity
+@Table(name = "application_facts", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_application_facts_app_key", columnNames = {"application_id", "fact_key"})
+}, indexes = {
+        // Admin list filter: equality on service, key and value, then keyset order on application_id
+        @Index(name = "idx_application_facts_lookup", columnList = "service_id, fact_key, fact_value, application_id")
+})
+@Data
+public class ApplicationFact {
+
+    public static final int MAX_VALUE_LENGTH = 255;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "fact_id")
+    private Long id;
+
+    // Plain ids rather than associations: facts are written with JDBC next to the Hibernate inserts
+    @Column(name = "application_id", nullable = false)
+    private Long applicationId;
+
+    @Column(name = "service_id", nullable = false)
+    private Long serviceId;
+
+    @Column(name = "fact_key", nullable = false, length = 100)
+    private String factKey;
+
+    @Column(name = "fact_value", nullable = false, length = MAX_VALUE_LENGTH)
+    private String factValue;
+}
@@ -0,0 +1,43 @@
+package com.govportal.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.sql.Timestamp;
+
+// Backfill progress of one indexed serviceSpecificData key; maintained by ApplicationFactService with JDBC
+@Entity
+@Table(name = "application_fact_keys", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_application_fact_keys_service_key", columnNames = {"service_id", "fact_key"})
+})
+@Data
+public class ApplicationFactKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "fact_key_id")
+    private Long id;
+
+    @Column(name = "service_id", nullable = false)
+    private Long serviceId;
+
+    @Column(name = "fact_key", nullable = false, length = 100)
+    private String factKey;
+
+    // Applications with ids in (lowWatermark, highWatermark] have their facts; the backfill moves lowWatermark
+    // down to 0 and the catch-up pass moves highWatermark up
+    @Column(name = "low_watermark", nullable = false)
+    private long lowWatermark;
+
+    @Column(name = "high_watermark", nullable = false)
+    private long highWatermark;
+
+    // Set once lowWatermark reaches 0; only then may admins filter on the key
+    @Column(nullable = false)
+    private boolean ready;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Timestamp updatedAt;
+}
@@ -1,12 +1,17 @@
 package com.govportal.backend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 
 import java.time.LocalDate;
+import java.util.Locale;
 
 @Entity
-@Table(name = "citizen_profiles")
+@Table(name = "citizen_profiles", indexes = {
+        // Prefix search on applicant names from the admin application search
+        @Index(name = "idx_citizen_profiles_name_search", columnList = "name_search")
+})
 @Data
 public class CitizenProfile {
 
@@ -22,6 +27,12 @@ public class CitizenProfile {
     @Column(nullable = false)
     private String name;
 
+    // Lower-cased, trimmed copy of name maintained by MySQL; match it against CitizenProfile.normalizeName(...)
+    @JsonIgnore
+    @Column(name = "name_search", insertable = false, updatable = false,
+            columnDefinition = "VARCHAR(255) GENERATED ALWAYS AS (LOWER(TRIM(name))) STORED")
+    private String nameSearch;
+
     @Column(name = "fathers_name")
     private String fathersName;
 
@@ -48,6 +59,10 @@ public class CitizenProfile {
 
     private String profession;
 
+    public static String normalizeName(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
     public enum Gender {
         MALE, FEMALE, OTHER
     }
@@ -55,6 +70,4 @@ public class CitizenProfile {
     public enum Religion {
         ISLAM, HINDUISM, CHRISTIANITY, BUDDHISM, OTHER
     }
-
-
 }
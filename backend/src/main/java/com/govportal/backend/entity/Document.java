@@ -10,8 +10,13 @@ import java.sql.Timestamp;
 @Data
 public class Document {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled ids from id_generators (see Application) so multi-file uploads insert their rows in one JDBC batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "document_id_gen")
+    @TableGenerator(name = "document_id_gen", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "documents", allocationSize = Document.ID_ALLOCATION_SIZE)
     @Column(name = "document_id")
     private Long id;
 
@@ -28,7 +33,32 @@ public class Document {
     @Column(name = "file_path", nullable = false)
     private String filePath;
 
+    // SHA-256 of the content (the StoredBlob key in content-addressed mode); null for legacy uploads
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @CreationTimestamp
     @Column(name = "uploaded_at", updatable = false)
     private Timestamp uploadedAt;
+
+    // Filled in by the background pipeline (DocumentProcessor) after upload
+    @Enumerated(EnumType.STRING)
+    @Column(name = "validation_status")
+    private ValidationStatus validationStatus = ValidationStatus.PENDING;
+
+    // Content type detected from the file's magic bytes, not the client-supplied name
+    @Column(name = "detected_content_type")
+    private String detectedContentType;
+
+    // Downscaled JPEG preview for image uploads
+    @Column(name = "preview_path")
+    private String previewPath;
+
+    // Recompressed copy of an oversized image
+    @Column(name = "compressed_path")
+    private String compressedPath;
+
+    public enum ValidationStatus {
+        PENDING, VALID, INVALID
+    }
 }
@@ -0,0 +1,51 @@
+package com.govportal.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.sql.Timestamp;
+
+// Persistent queue entry for the document post-processing pipeline; survives restarts
+@Entity
+@Table(name = "document_processing_jobs", indexes = {
+        @Index(name = "idx_document_jobs_status", columnList = "status, job_id")
+})
+@Data
+public class DocumentProcessingJob {
+
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "document_job_id_gen")
+    @TableGenerator(name = "document_job_id_gen", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "document_processing_jobs", allocationSize = DocumentProcessingJob.ID_ALLOCATION_SIZE)
+    @Column(name = "job_id")
+    private Long id;
+
+    @Column(name = "document_id", nullable = false)
+    private Long documentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private JobStatus status = JobStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private Timestamp createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Timestamp updatedAt;
+
+    public enum JobStatus {
+        PENDING, RUNNING, DONE, FAILED
+    }
+}
@@ -8,7 +8,12 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.sql.Timestamp;
 
 @Entity
-@Table(name = "feedback")
+@Table(name = "feedback", indexes = {
+        // Admin inbox filters; feedback_id is last so the newest-first keyset pages walk each index in order
+        @Index(name = "idx_feedback_status", columnList = "status, feedback_id"),
+        @Index(name = "idx_feedback_type", columnList = "feedback_type, feedback_id"),
+        @Index(name = "idx_feedback_submission_date", columnList = "submission_date, feedback_id")
+})
 @Data
 public class Feedback {
 
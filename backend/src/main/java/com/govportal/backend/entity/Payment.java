@@ -10,6 +10,9 @@ import java.util.Date;
 @Entity
 @Table(name = "payments", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"transaction_id"})
+}, indexes = {
+        // Settlement reconciliation scans one gateway's payments for a date range
+        @Index(name = "idx_payments_method_date", columnList = "payment_method, payment_date")
 })
 @Data
 public class Payment {
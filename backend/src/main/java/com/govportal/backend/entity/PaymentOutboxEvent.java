@@ -0,0 +1,33 @@
+package com.govportal.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.sql.Timestamp;
+
+// Written in the same transaction as a payment; PaymentOutboxWorker applies it to the application and deletes it
+@Entity
+@Table(name = "payment_outbox")
+@Data
+public class PaymentOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "event_id")
+    private Long id;
+
+    // Unique so a replayed payment callback cannot enqueue the same update twice
+    @Column(name = "payment_id", nullable = false, unique = true)
+    private Long paymentId;
+
+    @Column(name = "application_id", nullable = false)
+    private Long applicationId;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private Timestamp createdAt;
+}
@@ -0,0 +1,48 @@
+package com.govportal.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+// A settlement row or payment that did not reconcile cleanly; written in bulk by INSERT ... SELECT
+@Entity
+@Table(name = "reconciliation_items", indexes = {
+        @Index(name = "idx_reconciliation_items_report", columnList = "report_id, item_id")
+})
+@Data
+public class ReconciliationItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "item_id")
+    private Long id;
+
+    @Column(name = "report_id", nullable = false)
+    private Long reportId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "item_type", nullable = false)
+    private ItemType type;
+
+    @Column(name = "transaction_id", nullable = false)
+    private String transactionId;
+
+    // Amount in the settlement file; null for orphan payments
+    @Column(name = "settled_amount")
+    private BigDecimal settledAmount;
+
+    // Amount in the payments table; null for missing payments
+    @Column(name = "recorded_amount")
+    private BigDecimal recordedAmount;
+
+    @Column(name = "payment_id")
+    private Long paymentId;
+
+    public enum ItemType {
+        AMOUNT_MISMATCH,  // in both, amounts differ
+        MISSING_PAYMENT,  // settled by the gateway, no payment recorded
+        ORPHAN_PAYMENT,   // recorded payment the gateway did not settle
+        DUPLICATE_ENTRY   // transaction listed more than once in the file
+    }
+}
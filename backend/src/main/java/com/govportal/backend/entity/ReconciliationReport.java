@@ -0,0 +1,77 @@
+package com.govportal.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+// One run of the settlement reconciliation for a gateway; the individual findings are ReconciliationItems
+@Entity
+@Table(name = "reconciliation_reports")
+@Data
+public class ReconciliationReport {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "report_id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_method", nullable = false)
+    private Payment.PaymentMethod paymentMethod;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    // Payments dated in [periodFrom, periodTo] that are not in the file are reported as orphans
+    @Column(name = "period_from", nullable = false)
+    private LocalDate periodFrom;
+
+    @Column(name = "period_to", nullable = false)
+    private LocalDate periodTo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReportStatus status = ReportStatus.RUNNING;
+
+    @Column(name = "total_rows")
+    private long totalRows;
+
+    @Column(name = "malformed_rows")
+    private long malformedRows;
+
+    @Column(name = "matched")
+    private long matched;
+
+    @Column(name = "amount_mismatches")
+    private long amountMismatches;
+
+    @Column(name = "missing_payments")
+    private long missingPayments;
+
+    @Column(name = "orphan_payments")
+    private long orphanPayments;
+
+    @Column(name = "duplicate_entries")
+    private long duplicateEntries;
+
+    @Column(length = 1000)
+    private String error;
+
+    // Node that runs the report (ReconciliationService); after a restart it fails its own leftover RUNNING reports
+    @Column(name = "node", length = 100)
+    private String node;
+
+    @CreationTimestamp
+    @Column(name = "started_at", updatable = false)
+    private Timestamp startedAt;
+
+    @Column(name = "completed_at")
+    private Timestamp completedAt;
+
+    public enum ReportStatus {
+        RUNNING, COMPLETED, FAILED
+    }
+}
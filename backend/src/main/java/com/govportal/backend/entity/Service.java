@@ -6,6 +6,7 @@ import java.math.BigDecimal;
 
 @Entity
 @Table(name = "services")
+@EntityListeners(ServiceCatalogueListener.class)
 @Data
 public class Service {
 
@@ -22,4 +23,9 @@ public class Service {
 
     @Column(nullable = false)
     private BigDecimal fee;
+
+    // Comma-separated keys of serviceSpecificData (dots for nested keys, e.g. "passportType,trade.category")
+    // that are copied to application_facts so admins can filter on them; see ApplicationFactService
+    @Column(name = "indexed_data_keys", length = 500)
+    private String indexedDataKeys;
 }
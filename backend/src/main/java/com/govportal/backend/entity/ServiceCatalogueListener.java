@@ -0,0 +1,28 @@
+package com.govportal.backend.entity;
+
+import com.govportal.backend.service.ServiceCatalogue;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Drops the cached service catalogue whenever a Service row is written.
+ * Created by Spring through Hibernate's bean container; the catalogue is looked up lazily to avoid
+ * a cycle with the EntityManagerFactory.
+ */
+public class ServiceCatalogueListener {
+
+    private final ObjectProvider<ServiceCatalogue> serviceCatalogue;
+
+    public ServiceCatalogueListener(ObjectProvider<ServiceCatalogue> serviceCatalogue) {
+        this.serviceCatalogue = serviceCatalogue;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onServiceChanged(Service service) {
+        serviceCatalogue.ifAvailable(ServiceCatalogue::invalidate);
+    }
+}
@@ -0,0 +1,33 @@
+package com.govportal.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+// Staging row for a settlement file being reconciled; deleted when the run finishes
+@Entity
+@Table(name = "settlement_entries", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_settlement_entries_report_txn", columnNames = {"report_id", "transaction_id"})
+})
+@Data
+public class SettlementEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "entry_id")
+    private Long id;
+
+    @Column(name = "report_id", nullable = false)
+    private Long reportId;
+
+    @Column(name = "transaction_id", nullable = false)
+    private String transactionId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    // How many times the transaction appears in the file
+    @Column(nullable = false)
+    private int occurrences = 1;
+}
@@ -0,0 +1,28 @@
+package com.govportal.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.sql.Timestamp;
+
+// One row per unique file in the content-addressed store, shared by every Document with the same content
+@Entity
+@Table(name = "stored_blobs", indexes = {
+        @Index(name = "idx_stored_blobs_ref_count", columnList = "ref_count, updated_at")
+})
+@Data
+public class StoredBlob {
+
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(nullable = false)
+    private long size;
+
+    @Column(name = "ref_count", nullable = false)
+    private long refCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private Timestamp updatedAt;
+}
@@ -1,5 +1,6 @@
 package com.govportal.backend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.sql.Timestamp;
@@ -7,6 +8,8 @@ import java.sql.Timestamp;
 @Entity
 @Table(name = "users")
 @Data
+// Often a getReferenceById proxy (IdentityService); keep Hibernate's proxy internals out of JSON
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,25 +1,166 @@
 package com.govportal.backend.repository;
 
+import com.govportal.backend.dto.AdminApplicationListItemDTO;
+import com.govportal.backend.dto.ApplicationSearchResultDTO;
 import com.govportal.backend.entity.Admin;
 import com.govportal.backend.entity.Application;
 import com.govportal.backend.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ApplicationRepository extends JpaRepository<Application, Long> {
 
+    // Constructor arguments of ApplicationSearchResultDTO, shared by the admin search queries
+    String SEARCH_RESULT_COLUMNS = "a.applicationId, s.serviceId, s.serviceName, a.submissionDate, a.status, " +
+            "a.paymentStatus, cp.id, cp.name, cp.nidNumber, cp.dateOfBirth";
+
     // SQL: SELECT * FROM applications WHERE user_id = ?;
     List<Application> findAllByUser(User user);
 
     // SQL: SELECT COUNT(*) FROM applications WHERE status = ?;
     long countByStatus(Application.ApplicationStatus status);
 
+    // SQL: SELECT a.*, s.service_name, cp.* FROM applications a
+    //      JOIN services s ON ... LEFT JOIN citizen_profiles cp ON ... ORDER BY a.application_id;
+    // Streamed row by row (MySQL needs fetch size Integer.MIN_VALUE for a forward-only cursor); the caller must close it.
+    // MySQL allows no other statement on the connection while the cursor is open, so this is a DTO projection:
+    // no entities, no lazy loads and no catalogue lookups per row.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new com.govportal.backend.dto.AdminApplicationListItemDTO(" +
+            "a.applicationId, a.user.id, s.serviceName, a.submissionDate, a.status, a.paymentStatus, " +
+            "a.serviceSpecificData, cp.name, cp.fathersName, cp.mothersName, cp.dateOfBirth, cp.nidNumber, cp.profession) " +
+            "FROM Application a JOIN a.service s LEFT JOIN a.citizenProfile cp " +
+            "ORDER BY a.applicationId")
+    Stream<AdminApplicationListItemDTO> streamAllForExport();
+
+    // SQL: SELECT application_id, status, payment_status FROM applications WHERE application_id IN (...);
+    @Query("SELECT a.applicationId, a.status, a.paymentStatus FROM Application a WHERE a.applicationId IN :ids")
+    List<Object[]> findStatusesByIds(@Param("ids") Collection<Long> ids);
+
+    // SQL: UPDATE applications SET status = ?, admin_id = ? WHERE application_id IN (...) [AND payment_status = ?];
+    // A null paymentStatus skips the payment check (used for rejections).
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Application a SET a.status = :status, a.admin = :admin " +
+            "WHERE a.applicationId IN :ids AND (:paymentStatus IS NULL OR a.paymentStatus = :paymentStatus)")
+    int updateStatusForIds(@Param("ids") Collection<Long> ids,
+                           @Param("status") Application.ApplicationStatus status,
+                           @Param("admin") Admin admin,
+                           @Param("paymentStatus") Application.PaymentStatus paymentStatus);
+
+    // SQL: UPDATE applications SET payment_status = ? WHERE application_id IN (...);
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Application a SET a.paymentStatus = :paymentStatus WHERE a.applicationId IN :ids")
+    int updatePaymentStatusForIds(@Param("ids") Collection<Long> ids,
+                                  @Param("paymentStatus") Application.PaymentStatus paymentStatus);
+
+    // SQL: SELECT status, COUNT(*) FROM applications GROUP BY status;
+    @Query("SELECT a.status, COUNT(a) FROM Application a GROUP BY a.status")
+    List<Object[]> countGroupByStatus();
+
     // SQL: SELECT * FROM applications WHERE status = ?;
     List<Application> findByStatus(Application.ApplicationStatus status);
 
     // SQL: SELECT * FROM applications WHERE admin_id = ?;
     List<Application> findByAdmin(Admin admin);
+
+    // SQL: SELECT a.*, s.service_name, cp.* FROM applications a
+    //      JOIN services s ON ... LEFT JOIN citizen_profiles cp ON ...
+    //      WHERE a.application_id > ? [AND a.status = ? ...] ORDER BY a.application_id LIMIT ?;
+    // One statement per page (no lazy loads per row); null filters are ignored.
+    @Query("SELECT new com.govportal.backend.dto.AdminApplicationListItemDTO(" +
+            "a.applicationId, a.user.id, s.serviceName, a.submissionDate, a.status, a.paymentStatus, " +
+            "a.serviceSpecificData, cp.name, cp.fathersName, cp.mothersName, cp.dateOfBirth, cp.nidNumber, cp.profession) " +
+            "FROM Application a JOIN a.service s LEFT JOIN a.citizenProfile cp " +
+            "WHERE a.applicationId > :afterId " +
+            "AND (:status IS NULL OR a.status = :status) " +
+            "AND (:paymentStatus IS NULL OR a.paymentStatus = :paymentStatus) " +
+            "AND (:serviceId IS NULL OR s.serviceId = :serviceId) " +
+            "AND (:fromDate IS NULL OR a.submissionDate >= :fromDate) " +
+            "AND (:toDate IS NULL OR a.submissionDate <= :toDate) " +
+            "ORDER BY a.applicationId")
+    List<AdminApplicationListItemDTO> findAdminListItems(@Param("afterId") long afterId,
+                                                         @Param("status") Application.ApplicationStatus status,
+                                                         @Param("paymentStatus") Application.PaymentStatus paymentStatus,
+                                                         @Param("serviceId") Long serviceId,
+                                                         @Param("fromDate") LocalDate fromDate,
+                                                         @Param("toDate") LocalDate toDate,
+                                                         Limit limit);
+
+    // SQL: SELECT a.*, s.service_name, cp.* FROM application_facts f JOIN applications a ON ...
+    //      JOIN services s ON ... LEFT JOIN citizen_profiles cp ON ...
+    //      WHERE f.service_id = ? AND f.fact_key = ? AND f.fact_value = ? AND f.application_id > ? [AND a.status = ? ...]
+    //      ORDER BY f.application_id LIMIT ?;
+    // Same rows as findAdminListItems, driven by idx_application_facts_lookup for a serviceSpecificData filter.
+    @Query("SELECT new com.govportal.backend.dto.AdminApplicationListItemDTO(" +
+            "a.applicationId, a.user.id, s.serviceName, a.submissionDate, a.status, a.paymentStatus, " +
+            "a.serviceSpecificData, cp.name, cp.fathersName, cp.mothersName, cp.dateOfBirth, cp.nidNumber, cp.profession) " +
+            "FROM ApplicationFact f JOIN Application a ON a.applicationId = f.applicationId " +
+            "JOIN a.service s LEFT JOIN a.citizenProfile cp " +
+            "WHERE f.serviceId = :serviceId AND f.factKey = :factKey AND f.factValue = :factValue " +
+            "AND f.applicationId > :afterId " +
+            "AND (:status IS NULL OR a.status = :status) " +
+            "AND (:paymentStatus IS NULL OR a.paymentStatus = :paymentStatus) " +
+            "AND (:fromDate IS NULL OR a.submissionDate >= :fromDate) " +
+            "AND (:toDate IS NULL OR a.submissionDate <= :toDate) " +
+            "ORDER BY f.applicationId")
+    List<AdminApplicationListItemDTO> findAdminListItemsByFact(@Param("serviceId") Long serviceId,
+                                                               @Param("factKey") String factKey,
+                                                               @Param("factValue") String factValue,
+                                                               @Param("afterId") long afterId,
+                                                               @Param("status") Application.ApplicationStatus status,
+                                                               @Param("paymentStatus") Application.PaymentStatus paymentStatus,
+                                                               @Param("fromDate") LocalDate fromDate,
+                                                               @Param("toDate") LocalDate toDate,
+                                                               Limit limit);
+
+    // SQL: SELECT a.application_id, s.service_name, ..., cp.name, cp.nid_number FROM citizen_profiles cp
+    //      JOIN applications a ON ... JOIN services s ON ...
+    //      WHERE cp.nid_number = ? [AND cp.name_search LIKE 'prefix%'] [AND a.service_id = ?] AND a.application_id > ?
+    //      ORDER BY a.application_id LIMIT ?;
+    // Starts from the unique NID index, then idx_applications_profile_service.
+    @Query("SELECT new com.govportal.backend.dto.ApplicationSearchResultDTO(" + SEARCH_RESULT_COLUMNS + ") " +
+            "FROM Application a JOIN a.citizenProfile cp JOIN a.service s " +
+            "WHERE cp.nidNumber = :nid " +
+            "AND (:namePrefix IS NULL OR cp.nameSearch LIKE :namePrefix ESCAPE '!') " +
+            "AND (:serviceId IS NULL OR s.serviceId = :serviceId) " +
+            "AND a.applicationId > :afterId " +
+            "ORDER BY a.applicationId")
+    List<ApplicationSearchResultDTO> searchByNid(@Param("nid") String nid,
+                                                 @Param("namePrefix") String namePrefix,
+                                                 @Param("serviceId") Long serviceId,
+                                                 @Param("afterId") long afterId,
+                                                 Limit limit);
+
+    // SQL: SELECT ... FROM applications a JOIN citizen_profiles cp ON ... JOIN services s ON ...
+    //      WHERE a.citizen_profile_id IN (...) [AND a.service_id = ?]
+    //      AND (a.citizen_profile_id <> ? OR a.application_id > ?) ORDER BY a.citizen_profile_id, a.application_id;
+    // Second step of the name search: the applications of one page of profiles from
+    // CitizenProfileRepository.findNamePage. The last condition resumes part-way through the cursor's profile.
+    @Query("SELECT new com.govportal.backend.dto.ApplicationSearchResultDTO(" + SEARCH_RESULT_COLUMNS + ") " +
+            "FROM Application a JOIN a.citizenProfile cp JOIN a.service s " +
+            "WHERE cp.id IN :profileIds " +
+            "AND (:serviceId IS NULL OR s.serviceId = :serviceId) " +
+            "AND (cp.id <> :resumeProfileId OR a.applicationId > :resumeAfterId) " +
+            "ORDER BY cp.id, a.applicationId")
+    List<ApplicationSearchResultDTO> searchByProfiles(@Param("profileIds") Collection<Long> profileIds,
+                                                      @Param("serviceId") Long serviceId,
+                                                      @Param("resumeProfileId") long resumeProfileId,
+                                                      @Param("resumeAfterId") long resumeAfterId);
 }
@@ -2,9 +2,13 @@ package com.govportal.backend.repository;
 
 import com.govportal.backend.entity.CitizenProfile;
 import com.govportal.backend.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,4 +19,23 @@ public interface CitizenProfileRepository extends JpaRepository<CitizenProfile,
 
     // SQL: SELECT * FROM citizen_profiles WHERE user_email = ?;
     Optional<CitizenProfile> findByUserEmail(String email);
+
+    // SQL: SELECT cp.*, u.* FROM citizen_profiles cp JOIN users u ON u.user_id = cp.user_id WHERE u.email = ?;
+    // One statement resolves the profile and its user (uses the unique index on users.email).
+    @Query("SELECT p FROM CitizenProfile p JOIN FETCH p.user u WHERE u.email = :email")
+    Optional<CitizenProfile> findWithUserByEmail(@Param("email") String email);
+
+    // SQL: SELECT citizen_profile_id, name_search FROM citizen_profiles WHERE name_search LIKE 'prefix%'
+    //      AND (name_search > ? OR (name_search = ? AND citizen_profile_id >= ?))
+    //      ORDER BY name_search, citizen_profile_id LIMIT ?;
+    // Walks idx_citizen_profiles_name_search in index order (the primary key is its implicit last column),
+    // so the LIMIT stops the scan. Rows are [citizen_profile_id, name_search].
+    @Query("SELECT p.id, p.nameSearch FROM CitizenProfile p " +
+            "WHERE p.nameSearch LIKE :namePrefix ESCAPE '!' " +
+            "AND (p.nameSearch > :afterName OR (p.nameSearch = :afterName AND p.id >= :fromProfileId)) " +
+            "ORDER BY p.nameSearch, p.id")
+    List<Object[]> findNamePage(@Param("namePrefix") String namePrefix,
+                                @Param("afterName") String afterName,
+                                @Param("fromProfileId") long fromProfileId,
+                                Limit limit);
 }
@@ -0,0 +1,44 @@
+package com.govportal.backend.repository;
+
+import com.govportal.backend.entity.DocumentProcessingJob;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+public interface DocumentProcessingJobRepository extends JpaRepository<DocumentProcessingJob, Long> {
+
+    // SQL: SELECT * FROM document_processing_jobs WHERE status = 'PENDING' ORDER BY job_id LIMIT ? FOR UPDATE SKIP LOCKED;
+    // SKIP LOCKED (lock timeout -2) lets several backend nodes claim different jobs without blocking each other.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT j FROM DocumentProcessingJob j WHERE j.status = com.govportal.backend.entity.DocumentProcessingJob.JobStatus.PENDING ORDER BY j.id")
+    List<DocumentProcessingJob> findPendingForUpdate(Limit limit);
+
+    // SQL: UPDATE document_processing_jobs SET status = 'FAILED', last_error = ? WHERE status = 'RUNNING'
+    //      AND updated_at < ? AND attempts >= ?;
+    // Gives up on abandoned jobs that already used all their attempts; run before requeueStale.
+    @Modifying
+    @Query("UPDATE DocumentProcessingJob j SET j.status = com.govportal.backend.entity.DocumentProcessingJob.JobStatus.FAILED, " +
+            "j.lastError = 'Worker stopped while processing; attempt limit reached' " +
+            "WHERE j.status = com.govportal.backend.entity.DocumentProcessingJob.JobStatus.RUNNING AND j.updatedAt < :cutoff " +
+            "AND j.attempts >= :maxAttempts")
+    int failStale(@Param("cutoff") Timestamp cutoff, @Param("maxAttempts") int maxAttempts);
+
+    // SQL: UPDATE document_processing_jobs SET status = 'PENDING' WHERE status = 'RUNNING' AND updated_at < ?;
+    // Puts back jobs whose worker died (e.g. the node was restarted mid-job).
+    @Modifying
+    @Query("UPDATE DocumentProcessingJob j SET j.status = com.govportal.backend.entity.DocumentProcessingJob.JobStatus.PENDING " +
+            "WHERE j.status = com.govportal.backend.entity.DocumentProcessingJob.JobStatus.RUNNING AND j.updatedAt < :cutoff")
+    int requeueStale(@Param("cutoff") Timestamp cutoff);
+}
@@ -3,12 +3,20 @@ package com.govportal.backend.repository;
 import com.govportal.backend.entity.Application;
 import com.govportal.backend.entity.Document;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Long> {
     // SQL: SELECT * FROM documents WHERE application_id = ?;
     List<Document> findByApplication(Application application);
+
+    // SQL: SELECT d.*, a.*, u.* FROM documents d JOIN applications a ON ... JOIN users u ON ... WHERE d.document_id = ?;
+    // Loads the owning user in the same statement for the download access check.
+    @Query("SELECT d FROM Document d JOIN FETCH d.application a JOIN FETCH a.user WHERE d.id = :id")
+    Optional<Document> findByIdWithOwner(@Param("id") Long id);
 }
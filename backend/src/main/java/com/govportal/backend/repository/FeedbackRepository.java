@@ -1,10 +1,16 @@
 package com.govportal.backend.repository;
 
+import com.govportal.backend.dto.FeedbackListItemDTO;
 import com.govportal.backend.entity.Feedback;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface FeedbackRepository extends JpaRepository<Feedback, Long> {
@@ -13,4 +19,45 @@ public interface FeedbackRepository extends JpaRepository<Feedback, Long> {
 
     // SQL: SELECT * FROM feedback WHERE feedback_type = ?;
     List<Feedback> findByFeedbackType(Feedback.FeedbackType feedbackType);
+
+    // SQL: SELECT f.feedback_id, u.email, ..., SUBSTRING(f.message, 1, ?), ... FROM feedback f
+    //      LEFT JOIN users u ON ... WHERE f.feedback_id < ? [AND f.status = ? ...] ORDER BY f.feedback_id DESC LIMIT ?;
+    // Newest first, one statement per page; only a prefix of the TEXT message leaves the database.
+    @Query("SELECT new com.govportal.backend.dto.FeedbackListItemDTO(" +
+            "f.id, u.email, f.feedbackType, f.subject, SUBSTRING(f.message, 1, :previewLength), f.status, " +
+            "f.submissionDate, f.updatedAt, CASE WHEN LENGTH(f.message) > :previewLength THEN true ELSE false END) " +
+            "FROM Feedback f LEFT JOIN f.user u " +
+            "WHERE f.id < :beforeId " +
+            "AND (:status IS NULL OR f.status = :status) " +
+            "AND (:feedbackType IS NULL OR f.feedbackType = :feedbackType) " +
+            "AND (:fromDate IS NULL OR f.submissionDate >= :fromDate) " +
+            "AND (:toDate IS NULL OR f.submissionDate < :toDate) " +
+            "ORDER BY f.id DESC")
+    List<FeedbackListItemDTO> findInboxItems(@Param("beforeId") long beforeId,
+                                             @Param("status") Feedback.FeedbackStatus status,
+                                             @Param("feedbackType") Feedback.FeedbackType feedbackType,
+                                             @Param("fromDate") Timestamp fromDate,
+                                             @Param("toDate") Timestamp toDate,
+                                             @Param("previewLength") int previewLength,
+                                             Limit limit);
+
+    // SQL: SELECT ..., MATCH(subject, message) AGAINST (? IN BOOLEAN MODE) AS score FROM feedback f LEFT JOIN users u ON ...
+    //      WHERE MATCH(...) AGAINST (...) [AND f.status = ? ...] ORDER BY score DESC LIMIT ?;
+    // Served by the ft_feedback_text FULLTEXT index (FeedbackSearchIndex). Rows are
+    // [feedback_id, email, feedback_type, subject, message, status, submission_date, score].
+    @Query(value = "SELECT f.feedback_id, u.email, f.feedback_type, f.subject, f.message, f.status, f.submission_date, " +
+            "MATCH(f.subject, f.message) AGAINST (:query IN BOOLEAN MODE) AS score " +
+            "FROM feedback f LEFT JOIN users u ON u.user_id = f.user_id " +
+            "WHERE MATCH(f.subject, f.message) AGAINST (:query IN BOOLEAN MODE) " +
+            "AND (:status IS NULL OR f.status = :status) " +
+            "AND (:feedbackType IS NULL OR f.feedback_type = :feedbackType) " +
+            "ORDER BY score DESC, f.feedback_id DESC LIMIT :limit", nativeQuery = true)
+    List<Object[]> searchFeedback(@Param("query") String booleanQuery,
+                                  @Param("status") String status,
+                                  @Param("feedbackType") String feedbackType,
+                                  @Param("limit") int limit);
+
+    // SQL: SELECT f.*, u.* FROM feedback f LEFT JOIN users u ON ... WHERE f.feedback_id = ?;
+    @Query("SELECT f FROM Feedback f LEFT JOIN FETCH f.user WHERE f.id = :id")
+    Optional<Feedback> findWithUserById(@Param("id") Long id);
 }
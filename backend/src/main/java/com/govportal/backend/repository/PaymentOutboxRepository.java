@@ -0,0 +1,45 @@
+package com.govportal.backend.repository;
+
+import com.govportal.backend.entity.PaymentOutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PaymentOutboxRepository extends JpaRepository<PaymentOutboxEvent, Long> {
+
+    // SQL: INSERT INTO payment_outbox (...) VALUES (...) ON DUPLICATE KEY UPDATE payment_id = payment_id;
+    // A no-op when the payment already has its event, so replayed callbacks stay idempotent.
+    @Modifying
+    @Query(value = "INSERT INTO payment_outbox (payment_id, application_id, attempts, created_at) " +
+            "VALUES (:paymentId, :applicationId, 0, NOW()) ON DUPLICATE KEY UPDATE payment_id = payment_id", nativeQuery = true)
+    void enqueue(@Param("paymentId") Long paymentId, @Param("applicationId") Long applicationId);
+
+    // SQL: SELECT * FROM payment_outbox WHERE attempts < ? ORDER BY event_id LIMIT ? FOR UPDATE SKIP LOCKED;
+    // Events that used up their attempts stay in the table as dead letters and are no longer claimed.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM PaymentOutboxEvent e WHERE e.attempts < :maxAttempts ORDER BY e.id")
+    List<PaymentOutboxEvent> findBatchForUpdate(@Param("maxAttempts") int maxAttempts, Limit limit);
+
+    // SQL: SELECT * FROM payment_outbox WHERE event_id = ? FOR UPDATE SKIP LOCKED;
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM PaymentOutboxEvent e WHERE e.id = :id")
+    Optional<PaymentOutboxEvent> findByIdForUpdate(@Param("id") Long id);
+
+    // SQL: UPDATE payment_outbox SET attempts = attempts + 1 WHERE event_id = ?;
+    @Modifying
+    @Query("UPDATE PaymentOutboxEvent e SET e.attempts = e.attempts + 1 WHERE e.id = :id")
+    int incrementAttempts(@Param("id") Long id);
+}
@@ -2,8 +2,13 @@ package com.govportal.backend.repository;
 
 import com.govportal.backend.entity.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Date;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +16,19 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     // optional helper to detect duplicate transaction submissions
     // SQL: SELECT * FROM payments WHERE transaction_id = ?;
     Optional<Payment> findByTransactionId(String transactionId);
-}
\ No newline at end of file
+
+    // SQL: INSERT INTO payments (...) VALUES (...) ON DUPLICATE KEY UPDATE payment_id = LAST_INSERT_ID(payment_id);
+    // Idempotent ingestion: one statement, no pre-check. If transaction_id or application_id already exists the
+    // existing row is left untouched and LAST_INSERT_ID() points at it, so the caller can tell a replay from a clash.
+    @Modifying
+    @Query(value = "INSERT INTO payments (application_id, amount, payment_method, status, transaction_id, payment_date) " +
+            "VALUES (:applicationId, :amount, :method, :status, :transactionId, :paymentDate) " +
+            "ON DUPLICATE KEY UPDATE payment_id = LAST_INSERT_ID(payment_id)", nativeQuery = true)
+    void upsert(@Param("applicationId") Long applicationId, @Param("amount") BigDecimal amount,
+                @Param("method") String paymentMethod, @Param("status") String status,
+                @Param("transactionId") String transactionId, @Param("paymentDate") Date paymentDate);
+
+    // SQL: SELECT LAST_INSERT_ID(); (the id inserted or matched by upsert on this connection)
+    @Query(value = "SELECT LAST_INSERT_ID()", nativeQuery = true)
+    Long lastInsertId();
+}
@@ -0,0 +1,22 @@
+package com.govportal.backend.repository;
+
+import com.govportal.backend.entity.ReconciliationItem;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ReconciliationItemRepository extends JpaRepository<ReconciliationItem, Long> {
+
+    // SQL: SELECT * FROM reconciliation_items WHERE report_id = ? [AND item_type = ?] AND item_id > ? ORDER BY item_id LIMIT ?;
+    @Query("SELECT i FROM ReconciliationItem i WHERE i.reportId = :reportId AND i.id > :afterId " +
+            "AND (:type IS NULL OR i.type = :type) ORDER BY i.id")
+    List<ReconciliationItem> findPage(@Param("reportId") Long reportId,
+                                      @Param("type") ReconciliationItem.ItemType type,
+                                      @Param("afterId") long afterId,
+                                      Limit limit);
+}
@@ -0,0 +1,21 @@
+package com.govportal.backend.repository;
+
+import com.govportal.backend.entity.ReconciliationReport;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ReconciliationReportRepository extends JpaRepository<ReconciliationReport, Long> {
+
+    // SQL: SELECT * FROM reconciliation_reports ORDER BY report_id DESC LIMIT 50;
+    List<ReconciliationReport> findTop50ByOrderByIdDesc();
+
+    // SQL: SELECT report_id FROM reconciliation_reports WHERE status = ? AND (node = ? OR node IS NULL);
+    // Reports written before the node column existed have no node and count as this node's.
+    @Query("SELECT r.id FROM ReconciliationReport r WHERE r.status = :status AND (r.node = :node OR r.node IS NULL)")
+    List<Long> findIdsByStatusAndNode(@Param("status") ReconciliationReport.ReportStatus status, @Param("node") String node);
+}
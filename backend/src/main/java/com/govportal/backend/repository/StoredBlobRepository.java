@@ -0,0 +1,40 @@
+package com.govportal.backend.repository;
+
+import com.govportal.backend.entity.StoredBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+
+    // SQL: INSERT ... ON DUPLICATE KEY UPDATE ref_count = ref_count + 1;
+    // Atomic, so concurrent uploads of the same content never lose a reference.
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO stored_blobs (content_hash, size, ref_count, updated_at) VALUES (:hash, :size, 1, NOW()) " +
+            "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1, updated_at = NOW()", nativeQuery = true)
+    void addReference(@Param("hash") String contentHash, @Param("size") long size);
+
+    // SQL: UPDATE stored_blobs SET ref_count = ref_count - 1 WHERE content_hash = ? AND ref_count > 0;
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE stored_blobs SET ref_count = ref_count - 1, updated_at = NOW() " +
+            "WHERE content_hash = :hash AND ref_count > 0", nativeQuery = true)
+    int releaseReference(@Param("hash") String contentHash);
+
+    // SQL: SELECT * FROM stored_blobs WHERE ref_count = 0 AND updated_at < ? LIMIT ? FOR UPDATE;
+    // The row lock makes a concurrent addReference wait until the blob is either gone or kept.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM StoredBlob b WHERE b.refCount = 0 AND b.updatedAt < :cutoff")
+    List<StoredBlob> findUnreferencedBefore(@Param("cutoff") Timestamp cutoff, Limit limit);
+}
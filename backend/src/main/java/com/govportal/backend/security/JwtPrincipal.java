@@ -0,0 +1,26 @@
+package com.govportal.backend.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The verified contents of a JWT, produced once per token by {@link JwtTokenProvider#resolvePrincipal(String)}.
+ * userId is set for citizen tokens and adminId for admin tokens (see AuthService.login / adminLogin).
+ */
+@Getter
+@AllArgsConstructor
+public final class JwtPrincipal {
+    private final String subject;
+    private final List<String> roles;
+    private final Long userId;
+    private final Long adminId;
+    private final Date issuedAt;
+    private final Date expiration;
+
+    public boolean isExpired() {
+        return expiration != null && expiration.getTime() <= System.currentTimeMillis();
+    }
+}
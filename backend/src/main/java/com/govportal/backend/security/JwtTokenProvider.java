@@ -2,21 +2,31 @@ package com.govportal.backend.security;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtTokenProvider {
@@ -29,8 +39,21 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration}")
     private int jwtExpirationInMs;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    // Upper bound on the number of verified tokens kept in memory
+    @Value("${jwt.cache.max-entries:10000}")
+    private int maxCachedTokens;
+
+    // The key and parser are immutable and thread-safe, so build them once instead of per call
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    // Verified tokens keyed by SHA-256 of the raw token; expired entries are swept every jwt.cache.sweep-interval-ms
+    private final Map<String, JwtPrincipal> verifiedTokens = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
     }
 
     public String generateToken(String subject, Map<String, Object> claims) {
@@ -42,46 +65,99 @@ public class JwtTokenProvider {
                 .setSubject(subject)
                 .setIssuedAt(new Date())
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS384)
+                .signWith(signingKey, SignatureAlgorithm.HS384)
                 .compact();
     }
 
+    /**
+     * Verifies the token once and returns its claims as a {@link JwtPrincipal}, or null if the token is
+     * invalid or expired. Repeat calls with the same token are answered from the cache without HMAC work.
+     */
+    public JwtPrincipal resolvePrincipal(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        String cacheKey = hashToken(token);
+        JwtPrincipal cached = verifiedTokens.get(cacheKey);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return cached;
+            }
+            verifiedTokens.remove(cacheKey, cached);
+            logger.error("Expired JWT token");
+            return null;
+        }
+
+        JwtPrincipal principal = parseAndVerify(token);
+        if (principal != null) {
+            cache(cacheKey, principal);
+        }
+        return principal;
+    }
+
     public String getUsernameFromJWT(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
+        JwtPrincipal principal = resolvePrincipal(token);
+        return principal != null ? principal.getSubject() : null;
     }
 
-    @SuppressWarnings("unchecked")
     public List<String> getRolesFromJWT(String token) {
-        return getClaimFromToken(token, claims -> (List<String>) claims.get("roles"));
+        JwtPrincipal principal = resolvePrincipal(token);
+        return principal != null ? principal.getRoles() : Collections.emptyList();
     }
 
     public boolean validateToken(String authToken) {
+        return resolvePrincipal(authToken) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private JwtPrincipal parseAndVerify(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(authToken);
-            return true;
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            List<String> roles = claims.get("roles", List.class);
+            return new JwtPrincipal(
+                    claims.getSubject(),
+                    roles != null ? List.copyOf(roles) : Collections.emptyList(),
+                    claims.get("userId", Long.class),
+                    claims.get("adminId", Long.class),
+                    claims.getIssuedAt(),
+                    claims.getExpiration());
         } catch (MalformedJwtException ex) {
             logger.error("Invalid JWT token");
         } catch (ExpiredJwtException ex) {
             logger.error("Expired JWT token");
         } catch (UnsupportedJwtException ex) {
             logger.error("Unsupported JWT token");
+        } catch (JwtException ex) {
+            logger.error("Invalid JWT signature");
         } catch (IllegalArgumentException ex) {
             logger.error("JWT claims string is empty.");
         }
-        return false;
+        return null;
+    }
+
+    // Expired entries are removed here, off the request path, so a full cache never costs a request a full scan
+    @Scheduled(fixedDelayString = "${jwt.cache.sweep-interval-ms:60000}")
+    public void sweepExpiredTokens() {
+        verifiedTokens.values().removeIf(JwtPrincipal::isExpired);
     }
 
-    private <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getAllClaimsFromToken(token);
-        return claimsResolver.apply(claims);
+    private void cache(String cacheKey, JwtPrincipal principal) {
+        // Full: drop arbitrary entries (one, barring races) so the cache stays bounded with constant work per insert
+        Iterator<String> keys = verifiedTokens.keySet().iterator();
+        while (verifiedTokens.size() >= maxCachedTokens && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+        verifiedTokens.put(cacheKey, principal);
     }
 
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private static String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
     }
 }
-
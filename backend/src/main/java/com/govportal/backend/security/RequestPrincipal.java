@@ -0,0 +1,29 @@
+package com.govportal.backend.security;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * The verified JWT of the current request, recorded by JwtAuthenticationFilter. Carries the userId/adminId
+ * claims so services can refer to the caller by id instead of looking them up by email or username again.
+ */
+@Component
+@RequestScope
+public class RequestPrincipal {
+
+    private JwtPrincipal jwtPrincipal;
+
+    void set(JwtPrincipal jwtPrincipal) {
+        this.jwtPrincipal = jwtPrincipal;
+    }
+
+    // The user id from the token, if the token was issued to this email
+    public Long getUserId(String email) {
+        return jwtPrincipal != null && jwtPrincipal.getSubject().equals(email) ? jwtPrincipal.getUserId() : null;
+    }
+
+    // The admin id from the token, if the token was issued to this username
+    public Long getAdminId(String username) {
+        return jwtPrincipal != null && jwtPrincipal.getSubject().equals(username) ? jwtPrincipal.getAdminId() : null;
+    }
+}
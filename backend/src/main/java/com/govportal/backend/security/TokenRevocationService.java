@@ -0,0 +1,49 @@
+package com.govportal.backend.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory token revocation list checked by {@link JwtAuthenticationFilter}.
+ * Revoking a subject rejects every token issued to it up to that moment; it does not block new logins, so
+ * this ends existing sessions rather than locking an account. Entries expire after jwt.revocation.ttl-ms,
+ * which only needs to cover the lifetime of the tokens already handed out.
+ */
+@Service
+public class TokenRevocationService {
+
+    private final boolean enabled;
+    private final long ttlMs;
+
+    // subject -> time (ms) of revocation
+    private final Map<String, Long> revokedSubjects = new ConcurrentHashMap<>();
+
+    public TokenRevocationService(@Value("${jwt.revocation.enabled:false}") boolean enabled,
+                                  @Value("${jwt.revocation.ttl-ms:${jwt.expiration}}") long ttlMs) {
+        this.enabled = enabled;
+        this.ttlMs = ttlMs;
+    }
+
+    public void revoke(String subject) {
+        revokedSubjects.put(subject, System.currentTimeMillis());
+    }
+
+    public boolean isRevoked(JwtPrincipal principal) {
+        if (!enabled || revokedSubjects.isEmpty()) {
+            return false;
+        }
+        Long revokedAt = revokedSubjects.get(principal.getSubject());
+        if (revokedAt == null) {
+            return false;
+        }
+        if (revokedAt + ttlMs <= System.currentTimeMillis()) {
+            revokedSubjects.remove(principal.getSubject(), revokedAt);
+            return false;
+        }
+        // iat has second precision, so a token issued in the same second as the revocation is rejected too
+        return principal.getIssuedAt() == null || principal.getIssuedAt().getTime() <= revokedAt;
+    }
+}
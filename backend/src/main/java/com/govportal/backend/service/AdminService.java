@@ -1,42 +1,273 @@
 package com.govportal.backend.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.govportal.backend.dto.AdminApplicationListItemDTO;
+import com.govportal.backend.dto.AdminApplicationPageDTO;
+import com.govportal.backend.dto.ApplicationSearchPageDTO;
+import com.govportal.backend.dto.ApplicationSearchResultDTO;
+import com.govportal.backend.dto.BulkDecisionResultDTO;
 import com.govportal.backend.dto.DashboardStatsDTO;
 import com.govportal.backend.entity.Admin;
 import com.govportal.backend.entity.Application;
-import com.govportal.backend.repository.AdminRepository;
+import com.govportal.backend.entity.CitizenProfile;
 import com.govportal.backend.repository.ApplicationRepository;
+import com.govportal.backend.repository.CitizenProfileRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 public class AdminService {
 
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int MAX_BULK_DECISION_SIZE = 1000;
+    // Shorter name prefixes ("md", "mo") match too large a share of all applicants to be useful
+    private static final int MIN_NAME_PREFIX_LENGTH = 3;
+    // Upper bound on the profiles one name-search page reads
+    private static final int MAX_PROFILES_PER_SEARCH_PAGE = 2000;
+
+    private static final String CSV_HEADER = "applicationId,userId,serviceName,submissionDate,status,paymentStatus,"
+            + "applicantName,fathersName,mothersName,dateOfBirth,nidNumber,profession,serviceSpecificData";
+
+    public enum ExportFormat {
+        NDJSON, CSV
+    }
+
     private final ApplicationRepository applicationRepository;
-    private final AdminRepository adminRepository;
+    private final CitizenProfileRepository profileRepository;
+    private final IdentityService identityService;
+    private final ApplicationStatsService applicationStatsService;
+    private final ApplicationFactService applicationFactService;
+    private final ServiceCatalogue serviceCatalogue;
+    private final ObjectMapper objectMapper;
 
-    public AdminService(ApplicationRepository applicationRepository, AdminRepository adminRepository) {
+    public AdminService(ApplicationRepository applicationRepository, CitizenProfileRepository profileRepository,
+                        IdentityService identityService,
+                        ApplicationStatsService applicationStatsService, ApplicationFactService applicationFactService,
+                        ServiceCatalogue serviceCatalogue, ObjectMapper objectMapper) {
         this.applicationRepository = applicationRepository;
-        this.adminRepository = adminRepository;
+        this.profileRepository = profileRepository;
+        this.identityService = identityService;
+        this.applicationStatsService = applicationStatsService;
+        this.applicationFactService = applicationFactService;
+        this.serviceCatalogue = serviceCatalogue;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public AdminApplicationPageDTO getApplicationsPage(Long afterId, int size,
+                                                       Application.ApplicationStatus status,
+                                                       Application.PaymentStatus paymentStatus,
+                                                       Long serviceId, LocalDate fromDate, LocalDate toDate,
+                                                       String dataKey, String dataValue) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        long after = afterId != null ? afterId : 0L;
+        List<AdminApplicationListItemDTO> rows;
+        // Fetch one extra row to know whether another page follows
+        if (StringUtils.hasText(dataKey)) {
+            // Only keys the service indexes have facts; anything else would silently match nothing
+            if (serviceId == null || dataValue == null) {
+                throw new RuntimeException("Filtering by dataKey needs a serviceId and a dataValue.");
+            }
+            if (!applicationFactService.isIndexed(serviceId, dataKey)) {
+                throw new RuntimeException("'" + dataKey + "' is not an indexed data key of service " + serviceId + ".");
+            }
+            if (!applicationFactService.isBackfilled(serviceId, dataKey)) {
+                throw new RuntimeException("'" + dataKey + "' is still being indexed for service " + serviceId
+                        + "; try again later.");
+            }
+            rows = applicationRepository.findAdminListItemsByFact(serviceId, dataKey, dataValue, after,
+                    status, paymentStatus, fromDate, toDate, Limit.of(pageSize + 1));
+        } else {
+            rows = applicationRepository.findAdminListItems(after, status, paymentStatus, serviceId, fromDate, toDate,
+                    Limit.of(pageSize + 1));
+        }
+
+        Long nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = rows.get(pageSize - 1).getApplicationId();
+        }
+        return new AdminApplicationPageDTO(rows, nextCursor);
     }
 
+    /**
+     * Admin lookup by the applicant's NID (exact) and/or name (case-insensitive prefix), optionally limited to
+     * one service. At least one of nid and name is required, so every search starts from an index.
+     * Name results are ordered by name and walked in index order: each step reads one page of matching
+     * profiles and then their applications, so a page costs about the same however common the prefix is.
+     */
     @Transactional(readOnly = true)
-    public List<AdminApplicationListItemDTO> getAllApplications() {
-        return applicationRepository.findAll().stream()
-                .map(this::mapEntityToAdminDto)
-                .collect(Collectors.toList());
+    public ApplicationSearchPageDTO searchApplications(String nid, String name, Long serviceId, String cursor, int size) {
+        String nidValue = StringUtils.hasText(nid) ? nid.trim() : null;
+        String namePrefix = null;
+        if (StringUtils.hasText(name)) {
+            String normalized = CitizenProfile.normalizeName(name);
+            if (nidValue == null && normalized.length() < MIN_NAME_PREFIX_LENGTH) {
+                throw new RuntimeException("Name search needs at least " + MIN_NAME_PREFIX_LENGTH + " characters.");
+            }
+            // '!' is the LIKE escape character in the search queries
+            namePrefix = normalized.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+        }
+        if (nidValue == null && namePrefix == null) {
+            throw new RuntimeException("Provide an NID number or a name to search for.");
+        }
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        if (nidValue != null) {
+            // One applicant at most, so plain keyset paging on application_id
+            long afterId = cursor != null ? parseCursorPart(cursor) : 0L;
+            List<ApplicationSearchResultDTO> rows = applicationRepository.searchByNid(nidValue, namePrefix, serviceId,
+                    afterId, Limit.of(pageSize + 1));
+            if (rows.size() > pageSize) {
+                rows = rows.subList(0, pageSize);
+                return new ApplicationSearchPageDTO(rows, Long.toString(rows.get(pageSize - 1).getApplicationId()));
+            }
+            return new ApplicationSearchPageDTO(rows, null);
+        }
+        return searchByName(namePrefix, serviceId, cursor, pageSize);
+    }
+
+    // Cursor: (name_search, citizen_profile_id, application_id) of the last row returned
+    private ApplicationSearchPageDTO searchByName(String namePrefix, Long serviceId, String cursor, int pageSize) {
+        String afterName = "";
+        long profileId = 0L;
+        long afterApplicationId = 0L;
+        if (cursor != null) {
+            String[] parts = decodeNameCursor(cursor);
+            profileId = parseCursorPart(parts[0]);
+            afterApplicationId = parseCursorPart(parts[1]);
+            afterName = parts[2];
+        }
+
+        List<ApplicationSearchResultDTO> rows = new ArrayList<>();
+        Map<Long, String> namesByProfile = new HashMap<>();
+        int scannedProfiles = 0;
+        boolean exhausted = false;
+        while (rows.size() <= pageSize) {
+            if (scannedProfiles >= MAX_PROFILES_PER_SEARCH_PAGE) {
+                // Mostly profiles without a matching application (e.g. a narrow service filter): return what
+                // was found and let the client continue from here instead of scanning on indefinitely
+                break;
+            }
+            List<Object[]> profiles = profileRepository.findNamePage(namePrefix, afterName, profileId,
+                    Limit.of(pageSize + 1));
+            if (profiles.isEmpty()) {
+                exhausted = true;
+                break;
+            }
+            List<Long> profileIds = new ArrayList<>(profiles.size());
+            for (Object[] profile : profiles) {
+                profileIds.add((Long) profile[0]);
+                namesByProfile.put((Long) profile[0], (String) profile[1]);
+            }
+            // Back in name order (the query returns them by profile id)
+            Map<Long, Integer> order = new HashMap<>();
+            for (int i = 0; i < profileIds.size(); i++) {
+                order.put(profileIds.get(i), i);
+            }
+            List<ApplicationSearchResultDTO> found = new ArrayList<>(applicationRepository.searchByProfiles(
+                    profileIds, serviceId, profileId, afterApplicationId));
+            found.sort(Comparator.comparing((ApplicationSearchResultDTO row) -> order.get(row.getCitizenProfileId()))
+                    .thenComparing(ApplicationSearchResultDTO::getApplicationId));
+            rows.addAll(found);
+
+            scannedProfiles += profiles.size();
+            Object[] last = profiles.get(profiles.size() - 1);
+            afterName = (String) last[1];
+            // Continue after this profile: no application id is greater than Long.MAX_VALUE
+            profileId = (Long) last[0];
+            afterApplicationId = Long.MAX_VALUE;
+            if (profiles.size() <= pageSize) {
+                exhausted = true;
+                break;
+            }
+        }
+
+        if (rows.size() > pageSize) {
+            rows = new ArrayList<>(rows.subList(0, pageSize));
+            ApplicationSearchResultDTO lastRow = rows.get(pageSize - 1);
+            return new ApplicationSearchPageDTO(rows, encodeNameCursor(namesByProfile.get(lastRow.getCitizenProfileId()),
+                    lastRow.getCitizenProfileId(), lastRow.getApplicationId()));
+        }
+        return new ApplicationSearchPageDTO(rows, exhausted ? null : encodeNameCursor(afterName, profileId, afterApplicationId));
+    }
+
+    private static String encodeNameCursor(String nameSearch, long profileId, long applicationId) {
+        String raw = profileId + ":" + applicationId + ":" + nameSearch;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeNameCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 3);
+            if (parts.length == 3) {
+                return parts;
+            }
+        } catch (IllegalArgumentException ex) {
+            // Reported below
+        }
+        throw new RuntimeException("Invalid cursor.");
+    }
+
+    private static long parseCursorPart(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            throw new RuntimeException("Invalid cursor.");
+        }
     }
 
+    /**
+     * Writes every application as NDJSON (one object per line) or CSV straight to the output stream.
+     * Rows come from a forward-only cursor as DTOs (nothing enters the persistence context), so memory use
+     * does not grow with the size of the table.
+     */
     @Transactional(readOnly = true)
+    public void exportApplications(ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<AdminApplicationListItemDTO> applications = applicationRepository.streamAllForExport()) {
+            Iterator<AdminApplicationListItemDTO> iterator = applications.iterator();
+            while (iterator.hasNext()) {
+                AdminApplicationListItemDTO dto = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsvRow(writer, dto);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(dto));
+                }
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
     public DashboardStatsDTO getApplicationStats() {
-        long total = applicationRepository.count();
-        long pending = applicationRepository.countByStatus(Application.ApplicationStatus.PENDING);
-        long approved = applicationRepository.countByStatus(Application.ApplicationStatus.APPROVED);
-        long rejected = applicationRepository.countByStatus(Application.ApplicationStatus.REJECTED);
-        return new DashboardStatsDTO(total, pending, approved, rejected);
+        return applicationStatsService.getStats();
     }
 
     @Transactional
@@ -48,6 +279,7 @@ public class AdminService {
             throw new IllegalStateException("Cannot approve an application with a pending payment.");
         }
 
+        applicationStatsService.recordStatusChange(application.getStatus(), Application.ApplicationStatus.APPROVED);
         application.setStatus(Application.ApplicationStatus.APPROVED);
         application.setAdmin(admin);
         Application updatedApplication = applicationRepository.save(application);
@@ -59,27 +291,120 @@ public class AdminService {
         Application application = findApplicationById(applicationId);
         Admin admin = findAdminByUsername(adminUsername);
 
+        applicationStatsService.recordStatusChange(application.getStatus(), Application.ApplicationStatus.REJECTED);
         application.setStatus(Application.ApplicationStatus.REJECTED);
         application.setAdmin(admin);
         Application updatedApplication = applicationRepository.save(application);
         return mapEntityToAdminDto(updatedApplication);
     }
 
+    /**
+     * Approves or rejects many applications with one set-based UPDATE. Approval keeps the same rule as
+     * approveApplication (payment must be completed); every requested ID gets its own outcome.
+     */
+    @Transactional
+    public List<BulkDecisionResultDTO> applyBulkDecision(List<Long> applicationIds, Application.ApplicationStatus decision,
+                                                         String adminUsername) {
+        if (decision == Application.ApplicationStatus.PENDING) {
+            throw new RuntimeException("Decision must be APPROVED or REJECTED.");
+        }
+        if (applicationIds.size() > MAX_BULK_DECISION_SIZE) {
+            throw new RuntimeException("A bulk decision can contain at most " + MAX_BULK_DECISION_SIZE + " applications.");
+        }
+        Admin admin = findAdminByUsername(adminUsername);
+        boolean approving = decision == Application.ApplicationStatus.APPROVED;
+
+        Map<Long, Object[]> current = new HashMap<>();
+        for (Object[] row : applicationRepository.findStatusesByIds(applicationIds)) {
+            current.put((Long) row[0], row);
+        }
+
+        Map<Long, String> errors = new HashMap<>();
+        Set<Long> eligibleIds = new LinkedHashSet<>();
+        for (Long applicationId : applicationIds) {
+            Object[] row = current.get(applicationId);
+            if (row == null) {
+                errors.put(applicationId, "Application not found with ID: " + applicationId);
+            } else if (approving && row[2] != Application.PaymentStatus.COMPLETED) {
+                errors.put(applicationId, "Cannot approve an application with a pending payment.");
+            } else {
+                eligibleIds.add(applicationId);
+            }
+        }
+
+        if (!eligibleIds.isEmpty()) {
+            int updated = applicationRepository.updateStatusForIds(eligibleIds, decision, admin,
+                    approving ? Application.PaymentStatus.COMPLETED : null);
+            if (updated != eligibleIds.size()) {
+                // Some rows changed or disappeared since they were read; report those as not updated
+                Set<Long> confirmed = new HashSet<>();
+                for (Object[] row : applicationRepository.findStatusesByIds(eligibleIds)) {
+                    if (row[1] == decision) {
+                        confirmed.add((Long) row[0]);
+                    }
+                }
+                for (Iterator<Long> ids = eligibleIds.iterator(); ids.hasNext(); ) {
+                    Long applicationId = ids.next();
+                    if (!confirmed.contains(applicationId)) {
+                        errors.put(applicationId, "Application " + applicationId + " changed while the decision was applied; try again.");
+                        ids.remove();
+                    }
+                }
+            }
+            for (Long applicationId : eligibleIds) {
+                applicationStatsService.recordStatusChange((Application.ApplicationStatus) current.get(applicationId)[1], decision);
+            }
+        }
+
+        List<BulkDecisionResultDTO> results = new ArrayList<>(applicationIds.size());
+        for (Long applicationId : applicationIds) {
+            String error = errors.get(applicationId);
+            results.add(new BulkDecisionResultDTO(applicationId, error == null, error));
+        }
+        return results;
+    }
+
     private Application findApplicationById(Long applicationId) {
         return applicationRepository.findById(applicationId)
                 .orElseThrow(() -> new RuntimeException("Application not found with ID: " + applicationId));
     }
 
+    // Usually a reference built from the adminId claim, without a query
     private Admin findAdminByUsername(String username) {
-        return adminRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("Admin not found with username: " + username));
+        return identityService.getAdmin(username);
+    }
+
+    private void writeCsvRow(Writer writer, AdminApplicationListItemDTO dto) throws IOException {
+        Object[] values = {
+                dto.getApplicationId(), dto.getUserId(), dto.getServiceName(), dto.getSubmissionDate(),
+                dto.getStatus(), dto.getPaymentStatus(), dto.getApplicantName(), dto.getFathersName(),
+                dto.getMothersName(), dto.getDateOfBirth(), dto.getNidNumber(), dto.getProfession(),
+                dto.getServiceSpecificData() != null ? objectMapper.writeValueAsString(dto.getServiceSpecificData()) : null
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(values[i]));
+        }
+    }
+
+    private static String escapeCsv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
     }
 
     private AdminApplicationListItemDTO mapEntityToAdminDto(Application app) {
         AdminApplicationListItemDTO dto = new AdminApplicationListItemDTO();
         dto.setApplicationId(app.getApplicationId());
         dto.setUserId(app.getUser().getId());
-        dto.setServiceName(app.getService().getServiceName());
+        dto.setServiceName(serviceCatalogue.getServiceName(app.getService().getServiceId()));
         dto.setSubmissionDate(app.getSubmissionDate());
         dto.setStatus(app.getStatus());
         dto.setPaymentStatus(app.getPaymentStatus());
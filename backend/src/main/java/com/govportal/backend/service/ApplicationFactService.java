@@ -0,0 +1,289 @@
+package com.govportal.backend.service;
+
+import com.govportal.backend.entity.Application;
+import com.govportal.backend.entity.ApplicationFact;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Copies the serviceSpecificData values a Service lists in indexed_data_keys into application_facts, one row
+ * per application and key, so admin filters on them are index lookups instead of JSON scans.
+ * New applications get their facts in the transaction that creates them. A periodic sync, driven by the
+ * services table itself, covers everything else, with its progress per key kept in application_fact_keys:
+ * it backfills older applications from the newest id down, recording a low watermark after every chunk so an
+ * interrupted backfill resumes where it stopped, and it catches up on recent applications that were written
+ * without facts (e.g. by a node whose service catalogue predates the key). A key can only be filtered on once
+ * its backfill has reached the oldest application.
+ * Only scalar values are indexed; objects, arrays and nulls are skipped, and values are cut to 255 characters.
+ */
+@Component
+public class ApplicationFactService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApplicationFactService.class);
+
+    private static final int BACKFILL_CHUNK_SIZE = 10000;
+    // Pooled ids are not handed out in commit order across nodes, so the catch-up pass re-reads a margin
+    // below the high watermark; INSERT IGNORE makes the overlap harmless
+    private static final long CATCH_UP_OVERLAP = 100L * Application.ID_ALLOCATION_SIZE;
+    private static final Pattern KEY_SEGMENT = Pattern.compile("[A-Za-z0-9_]+");
+
+    private static final String UPSERT_FACT =
+            "INSERT INTO application_facts (application_id, service_id, fact_key, fact_value) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE fact_value = VALUES(fact_value)";
+
+    // JSON_TYPE of a missing path is NULL, which NOT IN also filters out
+    private static final String SCALAR_AT_PATH =
+            "JSON_TYPE(JSON_EXTRACT(service_specific_data, ?)) NOT IN ('OBJECT', 'ARRAY', 'NULL')";
+
+    private static final String FILL_RANGE =
+            "INSERT IGNORE INTO application_facts (application_id, service_id, fact_key, fact_value) " +
+            "SELECT application_id, service_id, ?, LEFT(JSON_UNQUOTE(JSON_EXTRACT(service_specific_data, ?)), " +
+            ApplicationFact.MAX_VALUE_LENGTH + ") FROM applications " +
+            "WHERE application_id > ? AND application_id <= ? AND service_id = ? AND " + SCALAR_AT_PATH;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ServiceCatalogue serviceCatalogue;
+    private final TransactionTemplate transactionTemplate;
+    // One sync at a time per node; a tick that finds it busy is skipped
+    private final ThreadPoolExecutor syncRunner = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "application-facts-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private record KeyState(long id, long serviceId, String factKey, long lowWatermark, long highWatermark) {
+    }
+
+    public ApplicationFactService(JdbcTemplate jdbcTemplate, ServiceCatalogue serviceCatalogue,
+                                  PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.serviceCatalogue = serviceCatalogue;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Under REPEATABLE READ the INSERT ... SELECT takes shared next-key locks on every application row it scans,
+        // blocking decisions and payment updates for the chunk's whole id range; READ COMMITTED reads without locks
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    // Call after the applications have ids; joins the caller's transaction
+    public void recordFacts(Collection<Application> applications) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Application application : applications) {
+            Map<String, Object> data = application.getServiceSpecificData();
+            if (data == null) {
+                continue;
+            }
+            Long serviceId = application.getService().getServiceId();
+            for (String key : serviceCatalogue.get(serviceId).getIndexedDataKeys()) {
+                String value = scalarAt(data, key);
+                if (value != null) {
+                    rows.add(new Object[]{application.getApplicationId(), serviceId, key, value});
+                }
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_FACT, rows);
+        }
+    }
+
+    public boolean isIndexed(Long serviceId, String key) {
+        return serviceCatalogue.get(serviceId).getIndexedDataKeys().contains(key);
+    }
+
+    // True once the key's facts cover every application of the service
+    public boolean isBackfilled(Long serviceId, String key) {
+        List<Boolean> ready = jdbcTemplate.queryForList(
+                "SELECT ready FROM application_fact_keys WHERE service_id = ? AND fact_key = ?",
+                Boolean.class, serviceId, key);
+        return !ready.isEmpty() && Boolean.TRUE.equals(ready.get(0));
+    }
+
+    @Scheduled(fixedDelayString = "${applications.facts.sync-interval-ms:60000}", initialDelayString = "${applications.facts.sync-initial-delay-ms:10000}")
+    public void scheduleSync() {
+        try {
+            syncRunner.execute(this::sync);
+        } catch (RejectedExecutionException ex) {
+            logger.debug("Application facts sync still running, skipping this tick");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        syncRunner.shutdownNow();
+    }
+
+    private void sync() {
+        try {
+            Set<String> configured = registerConfiguredKeys();
+            for (KeyState state : loadKeyStates()) {
+                if (!configured.contains(state.serviceId() + "/" + state.factKey())) {
+                    // Dropped from indexed_data_keys: stop offering it as a filter (its facts are left in place)
+                    jdbcTemplate.update("DELETE FROM application_fact_keys WHERE fact_key_id = ?", state.id());
+                    continue;
+                }
+                catchUp(state);
+                backfill(state);
+            }
+        } catch (Exception ex) {
+            logger.warn("Application facts sync stopped, it continues on the next run: {}", ex.getMessage());
+        }
+    }
+
+    // Read straight from the services table, so keys added with plain SQL are picked up without a restart
+    private Set<String> registerConfiguredKeys() {
+        Set<String> configured = new HashSet<>();
+        List<Map<String, Object>> services = jdbcTemplate.queryForList(
+                "SELECT service_id, indexed_data_keys FROM services WHERE indexed_data_keys IS NOT NULL");
+        for (Map<String, Object> service : services) {
+            long serviceId = ((Number) service.get("service_id")).longValue();
+            for (String key : ((String) service.get("indexed_data_keys")).split(",")) {
+                key = key.trim();
+                if (!StringUtils.hasText(key) || !isValidKey(key)) {
+                    continue;
+                }
+                configured.add(serviceId + "/" + key);
+                // New keys start with an empty range at the current top of the table
+                jdbcTemplate.update(
+                        "INSERT IGNORE INTO application_fact_keys (service_id, fact_key, low_watermark, high_watermark, ready, updated_at) " +
+                        "SELECT ?, ?, COALESCE(MAX(application_id), 0), COALESCE(MAX(application_id), 0), false, NOW() FROM applications",
+                        serviceId, key);
+            }
+        }
+        return configured;
+    }
+
+    private List<KeyState> loadKeyStates() {
+        return jdbcTemplate.query(
+                "SELECT fact_key_id, service_id, fact_key, low_watermark, high_watermark FROM application_fact_keys",
+                (rs, rowNum) -> new KeyState(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getLong(4), rs.getLong(5)));
+    }
+
+    // Applications added since the last pass that did not get their facts on the write path
+    private void catchUp(KeyState state) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(application_id), 0) FROM applications", Long.class);
+        if (maxId == null || maxId <= state.highWatermark() - CATCH_UP_OVERLAP) {
+            return;
+        }
+        for (long start = Math.max(0, state.highWatermark() - CATCH_UP_OVERLAP); start < maxId; start += BACKFILL_CHUNK_SIZE) {
+            long from = start;
+            long to = Math.min(maxId, start + BACKFILL_CHUNK_SIZE);
+            boolean done = withKeyLock(state, () -> {
+                fillRange(state, from, to);
+                jdbcTemplate.update("UPDATE application_fact_keys SET high_watermark = GREATEST(high_watermark, ?), " +
+                        "updated_at = NOW() WHERE fact_key_id = ?", to, state.id());
+            });
+            if (!done) {
+                return;
+            }
+        }
+    }
+
+    // Newest first; the low watermark is stored with every chunk, so an interrupted run resumes from it
+    private void backfill(KeyState state) {
+        long low = currentLowWatermark(state);
+        if (low > 0) {
+            logger.info("Backfilling application fact {} for service {} below id {}", state.factKey(), state.serviceId(), low);
+        }
+        while (low > 0) {
+            long to = low;
+            long from = Math.max(0, low - BACKFILL_CHUNK_SIZE);
+            boolean done = withKeyLock(state, () -> {
+                fillRange(state, from, to);
+                jdbcTemplate.update("UPDATE application_fact_keys SET low_watermark = LEAST(low_watermark, ?), " +
+                        "ready = (LEAST(low_watermark, ?) = 0), updated_at = NOW() WHERE fact_key_id = ?",
+                        from, from, state.id());
+            });
+            if (!done) {
+                // Another node holds this key right now
+                return;
+            }
+            low = from;
+        }
+        jdbcTemplate.update("UPDATE application_fact_keys SET ready = true WHERE fact_key_id = ? AND low_watermark = 0 AND ready = false",
+                state.id());
+    }
+
+    private long currentLowWatermark(KeyState state) {
+        List<Long> low = jdbcTemplate.queryForList("SELECT low_watermark FROM application_fact_keys WHERE fact_key_id = ?",
+                Long.class, state.id());
+        return low.isEmpty() ? 0 : low.get(0);
+    }
+
+    // Runs one chunk while holding the key's row lock; SKIP LOCKED lets nodes work on different keys in parallel
+    private boolean withKeyLock(KeyState state, Runnable chunk) {
+        Boolean locked = transactionTemplate.execute(status -> {
+            List<Long> row = jdbcTemplate.queryForList(
+                    "SELECT fact_key_id FROM application_fact_keys WHERE fact_key_id = ? FOR UPDATE SKIP LOCKED",
+                    Long.class, state.id());
+            if (row.isEmpty()) {
+                return false;
+            }
+            chunk.run();
+            return true;
+        });
+        return Boolean.TRUE.equals(locked);
+    }
+
+    private void fillRange(KeyState state, long fromExclusive, long toInclusive) {
+        String path = jsonPath(state.factKey());
+        jdbcTemplate.update(FILL_RANGE, state.factKey(), path, fromExclusive, toInclusive, state.serviceId(), path);
+    }
+
+    // Same result as JSON_UNQUOTE(JSON_EXTRACT(...)) in FILL_RANGE for strings, numbers and booleans
+    @SuppressWarnings("unchecked")
+    private static String scalarAt(Map<String, Object> data, String key) {
+        if (!isValidKey(key)) {
+            return null;
+        }
+        Object value = data;
+        for (String segment : key.split("\\.")) {
+            if (!(value instanceof Map)) {
+                return null;
+            }
+            value = ((Map<String, Object>) value).get(segment);
+        }
+        if (value == null || value instanceof Map || value instanceof Collection) {
+            return null;
+        }
+        String text = value.toString();
+        return text.length() > ApplicationFact.MAX_VALUE_LENGTH ? text.substring(0, ApplicationFact.MAX_VALUE_LENGTH) : text;
+    }
+
+    // "trade.category" -> $."trade"."category"
+    private static String jsonPath(String key) {
+        StringBuilder path = new StringBuilder("$");
+        for (String segment : key.split("\\.")) {
+            path.append(".\"").append(segment).append('"');
+        }
+        return path.toString();
+    }
+
+    private static boolean isValidKey(String key) {
+        for (String segment : key.split("\\.", -1)) {
+            if (!KEY_SEGMENT.matcher(segment).matches()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
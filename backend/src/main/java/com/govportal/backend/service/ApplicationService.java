@@ -2,47 +2,55 @@ package com.govportal.backend.service;
 
 import com.govportal.backend.dto.ApplicationDTO;
 import com.govportal.backend.dto.ApplicationListItemDTO;
+import com.govportal.backend.dto.BatchApplicationResultDTO;
 import com.govportal.backend.entity.Application;
 import com.govportal.backend.entity.CitizenProfile;
 import com.govportal.backend.entity.Service;
 import com.govportal.backend.entity.User;
 import com.govportal.backend.repository.ApplicationRepository;
-import com.govportal.backend.repository.CitizenProfileRepository;
-import com.govportal.backend.repository.ServiceRepository;
-import com.govportal.backend.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
 public class ApplicationService {
 
+    public static final int MAX_BATCH_SIZE = 500;
+
     private final ApplicationRepository applicationRepository;
-    private final UserRepository userRepository;
-    private final CitizenProfileRepository citizenProfileRepository;
-    private final ServiceRepository serviceRepository;
+    private final IdentityService identityService;
+    private final CitizenProfileService citizenProfileService;
+    private final ServiceCatalogue serviceCatalogue;
+    private final ApplicationStatsService applicationStatsService;
+    private final ApplicationFactService applicationFactService;
+    private final Validator validator;
 
-    public ApplicationService(ApplicationRepository applicationRepository, UserRepository userRepository, CitizenProfileRepository citizenProfileRepository, ServiceRepository serviceRepository) {
+    public ApplicationService(ApplicationRepository applicationRepository, IdentityService identityService, CitizenProfileService citizenProfileService, ServiceCatalogue serviceCatalogue, ApplicationStatsService applicationStatsService, ApplicationFactService applicationFactService, Validator validator) {
         this.applicationRepository = applicationRepository;
-        this.userRepository = userRepository;
-        this.citizenProfileRepository = citizenProfileRepository;
-        this.serviceRepository = serviceRepository;
+        this.identityService = identityService;
+        this.citizenProfileService = citizenProfileService;
+        this.serviceCatalogue = serviceCatalogue;
+        this.applicationStatsService = applicationStatsService;
+        this.applicationFactService = applicationFactService;
+        this.validator = validator;
     }
 
     @Transactional
     public Application createApplication(ApplicationDTO applicationDTO, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        CitizenProfile profile = citizenProfileRepository.findByUser(user)
-                .orElseThrow(() -> new RuntimeException("Citizen profile not found. Please create a profile first."));
+        // User and profile ids usually come from the profile cache, without a query
+        CitizenProfile profile = citizenProfileService.getProfileForApplication(userEmail);
+        User user = profile.getUser();
 
-        Service service = serviceRepository.findById(applicationDTO.getServiceId())
-                .orElseThrow(() -> new RuntimeException("Service not found with ID: " + applicationDTO.getServiceId()));
+        // Served from the in-memory catalogue; throws "Service not found" for unknown IDs
+        Service service = serviceCatalogue.get(applicationDTO.getServiceId()).toEntity();
 
         Application application = new Application();
         application.setUser(user);
@@ -53,14 +61,77 @@ public class ApplicationService {
         application.setPaymentStatus(Application.PaymentStatus.PENDING);
         application.setServiceSpecificData(applicationDTO.getServiceSpecificData());
 
-        return applicationRepository.save(application);
+        Application saved = applicationRepository.save(application);
+        applicationFactService.recordFacts(List.of(saved));
+        applicationStatsService.recordCreated(saved.getStatus());
+        return saved;
+    }
+
+    /**
+     * Creates several applications for one user. User, profile and services are resolved once; invalid
+     * items are reported individually and the valid ones are inserted together as a JDBC batch.
+     */
+    @Transactional
+    public List<BatchApplicationResultDTO> createApplications(List<ApplicationDTO> applicationDTOs, String userEmail) {
+        if (applicationDTOs.size() > MAX_BATCH_SIZE) {
+            throw new RuntimeException("A batch can contain at most " + MAX_BATCH_SIZE + " applications.");
+        }
+
+        // User and profile ids usually come from the profile cache, without a query
+        CitizenProfile profile = citizenProfileService.getProfileForApplication(userEmail);
+        User user = profile.getUser();
+
+        List<BatchApplicationResultDTO> results = new ArrayList<>();
+        List<Application> applications = new ArrayList<>();
+        List<BatchApplicationResultDTO> createdResults = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+
+        for (int i = 0; i < applicationDTOs.size(); i++) {
+            ApplicationDTO applicationDTO = applicationDTOs.get(i);
+            BatchApplicationResultDTO result = new BatchApplicationResultDTO(i, null, null);
+            results.add(result);
+
+            Set<ConstraintViolation<ApplicationDTO>> violations = validator.validate(applicationDTO);
+            if (!violations.isEmpty()) {
+                result.setError(violations.iterator().next().getMessage());
+                continue;
+            }
+
+            Service service;
+            try {
+                service = serviceCatalogue.get(applicationDTO.getServiceId()).toEntity();
+            } catch (RuntimeException ex) {
+                result.setError(ex.getMessage());
+                continue;
+            }
+
+            Application application = new Application();
+            application.setUser(user);
+            application.setCitizenProfile(profile);
+            application.setService(service);
+            application.setSubmissionDate(today);
+            application.setStatus(Application.ApplicationStatus.PENDING);
+            application.setPaymentStatus(Application.PaymentStatus.PENDING);
+            application.setServiceSpecificData(applicationDTO.getServiceSpecificData());
+            applications.add(application);
+            createdResults.add(result);
+        }
+
+        // Ids come from the pooled generator, so the inserts are only sent (batched) on flush
+        List<Application> saved = applicationRepository.saveAll(applications);
+        applicationRepository.flush();
+        applicationFactService.recordFacts(saved);
+        for (int i = 0; i < saved.size(); i++) {
+            createdResults.get(i).setApplicationId(saved.get(i).getApplicationId());
+            applicationStatsService.recordCreated(saved.get(i).getStatus());
+        }
+        return results;
     }
 
     @Transactional(readOnly = true)
     public List<ApplicationListItemDTO> getApplicationsByUserEmail(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
+        User user = identityService.getUser(userEmail);
+
         List<Application> applications = applicationRepository.findAllByUser(user);
         
         return applications.stream()
@@ -85,7 +156,7 @@ public class ApplicationService {
     private ApplicationListItemDTO mapEntityToListItemDto(Application application) {
         ApplicationListItemDTO dto = new ApplicationListItemDTO();
         dto.setApplicationId(application.getApplicationId());
-        dto.setServiceName(application.getService().getServiceName());
+        dto.setServiceName(serviceCatalogue.getServiceName(application.getService().getServiceId()));
         dto.setSubmissionDate(application.getSubmissionDate());
         dto.setStatus(application.getStatus());
         dto.setPaymentStatus(application.getPaymentStatus());
@@ -0,0 +1,90 @@
+package com.govportal.backend.service;
+
+import com.govportal.backend.dto.DashboardStatsDTO;
+import com.govportal.backend.entity.Application;
+import com.govportal.backend.repository.ApplicationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the admin dashboard counters in memory. Services report status changes, which are applied once their
+ * transaction commits, and the counts are periodically reconciled with a single GROUP BY query.
+ */
+@Service
+public class ApplicationStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApplicationStatsService.class);
+
+    private final ApplicationRepository applicationRepository;
+    private final Map<Application.ApplicationStatus, AtomicLong> counts = new EnumMap<>(Application.ApplicationStatus.class);
+    private volatile boolean loaded = false;
+
+    public ApplicationStatsService(ApplicationRepository applicationRepository) {
+        this.applicationRepository = applicationRepository;
+        for (Application.ApplicationStatus status : Application.ApplicationStatus.values()) {
+            counts.put(status, new AtomicLong());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public DashboardStatsDTO getStats() {
+        if (!loaded) {
+            reconcile();
+        }
+        long pending = counts.get(Application.ApplicationStatus.PENDING).get();
+        long approved = counts.get(Application.ApplicationStatus.APPROVED).get();
+        long rejected = counts.get(Application.ApplicationStatus.REJECTED).get();
+        return new DashboardStatsDTO(pending + approved + rejected, pending, approved, rejected);
+    }
+
+    public void recordCreated(Application.ApplicationStatus status) {
+        afterCommit(() -> counts.get(status).incrementAndGet());
+    }
+
+    public void recordStatusChange(Application.ApplicationStatus oldStatus, Application.ApplicationStatus newStatus) {
+        if (oldStatus == newStatus) {
+            return;
+        }
+        afterCommit(() -> {
+            counts.get(oldStatus).decrementAndGet();
+            counts.get(newStatus).incrementAndGet();
+        });
+    }
+
+    // Corrects any drift (e.g. rows changed outside this service) with one grouped aggregate query
+    @Scheduled(fixedDelayString = "${stats.reconcile-interval-ms:60000}", initialDelayString = "${stats.reconcile-interval-ms:60000}")
+    @Transactional(readOnly = true)
+    public synchronized void reconcile() {
+        Map<Application.ApplicationStatus, Long> fresh = new EnumMap<>(Application.ApplicationStatus.class);
+        for (Object[] row : applicationRepository.countGroupByStatus()) {
+            fresh.put((Application.ApplicationStatus) row[0], (Long) row[1]);
+        }
+        for (Application.ApplicationStatus status : Application.ApplicationStatus.values()) {
+            counts.get(status).set(fresh.getOrDefault(status, 0L));
+        }
+        loaded = true;
+        logger.debug("Reconciled application stats: {}", fresh);
+    }
+
+    private void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.govportal.backend.service;
+
+import com.govportal.backend.dto.CitizenProfileDTO;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-user cache of citizen profiles, keyed by login email. The portal reads the profile on every page load
+ * and every new application needs the user and profile ids, so both come from here.
+ * Entries expire after profile-cache.ttl-ms (other nodes may update a profile) and are evicted when the
+ * profile is updated, once that transaction commits. Readers take a generation() before loading the row and
+ * pass it to put, which drops the load if an eviction for that email happened in between.
+ */
+@Component
+public class CitizenProfileCache {
+
+    // Eviction counters, striped by email so memory stays fixed; a collision only costs a skipped put
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Map<String, Entry> byEmail = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    @Value("${profile-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${profile-cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    public Entry getByEmail(String email) {
+        Entry entry = byEmail.get(email);
+        if (entry != null && entry.isExpired(System.currentTimeMillis())) {
+            byEmail.remove(email, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    // Take before reading the profile from the database and hand to put
+    public long generation(String email) {
+        return generations.get(stripe(email));
+    }
+
+    // Skipped when the email was evicted after the caller took its generation, i.e. the profile may be stale
+    public void put(String email, Long userId, CitizenProfileDTO profile, long generation) {
+        if (byEmail.size() >= maxEntries) {
+            long now = System.currentTimeMillis();
+            byEmail.values().removeIf(entry -> entry.isExpired(now));
+            // Still full: drop an arbitrary entry so the cache stays bounded
+            Iterator<Entry> entries = byEmail.values().iterator();
+            while (byEmail.size() >= maxEntries && entries.hasNext()) {
+                entries.next();
+                entries.remove();
+            }
+        }
+        Entry entry = new Entry(email, userId, copy(profile), System.currentTimeMillis() + ttlMs);
+        // The check runs under the map's lock for this key, and evict bumps the generation before it removes,
+        // so an eviction either rejects this put or removes what it stored
+        byEmail.compute(email, (key, current) -> generations.get(stripe(email)) == generation ? entry : current);
+    }
+
+    // Evicts now and again after the transaction completes; the second pass also invalidates any read of the
+    // old row that started before the commit (see put)
+    public void evict(String email) {
+        Runnable eviction = () -> {
+            generations.incrementAndGet(stripe(email));
+            byEmail.remove(email);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+
+    private static int stripe(String email) {
+        return Math.floorMod(email.hashCode(), GENERATION_STRIPES);
+    }
+
+    private static CitizenProfileDTO copy(CitizenProfileDTO source) {
+        CitizenProfileDTO target = new CitizenProfileDTO();
+        BeanUtils.copyProperties(source, target);
+        return target;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Entry {
+        private final String email;
+        private final Long userId;
+        @Getter(AccessLevel.NONE)
+        private final CitizenProfileDTO profile;
+        private final long expiresAt;
+
+        public Long getProfileId() {
+            return profile.getCitizenProfileId();
+        }
+
+        // Callers get their own copy; the cached DTO is never handed out
+        public CitizenProfileDTO copyOfProfile() {
+            return copy(profile);
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -4,7 +4,6 @@ import com.govportal.backend.dto.CitizenProfileDTO;
 import com.govportal.backend.entity.CitizenProfile;
 import com.govportal.backend.entity.User;
 import com.govportal.backend.repository.CitizenProfileRepository;
-import com.govportal.backend.repository.UserRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,22 +11,24 @@ import org.springframework.transaction.annotation.Transactional;
 public class CitizenProfileService {
 
     private final CitizenProfileRepository citizenProfileRepository;
-    private final UserRepository userRepository;
+    private final IdentityService identityService;
+    private final CitizenProfileCache profileCache;
 
-    public CitizenProfileService(CitizenProfileRepository citizenProfileRepository, UserRepository userRepository) {
+    public CitizenProfileService(CitizenProfileRepository citizenProfileRepository, IdentityService identityService,
+                                 CitizenProfileCache profileCache) {
         this.citizenProfileRepository = citizenProfileRepository;
-        this.userRepository = userRepository;
+        this.identityService = identityService;
+        this.profileCache = profileCache;
     }
 
     @Transactional
     public CitizenProfileDTO createProfile(CitizenProfileDTO profileDTO, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        if (citizenProfileRepository.findByUser(user).isPresent()) {
+        if (profileCache.getByEmail(userEmail) != null || citizenProfileRepository.findWithUserByEmail(userEmail).isPresent()) {
             throw new RuntimeException("Profile already exists for this user.");
         }
 
+        User user = identityService.getUser(userEmail);
+
         CitizenProfile profile = new CitizenProfile();
         profile.setUser(user);
         // ... map all other fields from DTO to entity ...
@@ -40,26 +41,59 @@ public class CitizenProfileService {
     // --- NEW METHOD ---
     @Transactional
     public CitizenProfileDTO updateProfile(CitizenProfileDTO profileDTO, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        CitizenProfile profile = citizenProfileRepository.findByUser(user)
+        CitizenProfile profile = citizenProfileRepository.findWithUserByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("Profile not found for this user."));
 
         // Update existing profile with new data from DTO
         mapDtoToEntity(profileDTO, profile);
         
         CitizenProfile updatedProfile = citizenProfileRepository.save(profile);
+        profileCache.evict(userEmail);
         return mapEntityToDto(updatedProfile);
     }
 
     @Transactional(readOnly = true)
     public CitizenProfileDTO getProfileByUserEmail(String email) {
-        return citizenProfileRepository.findByUserEmail(email)
-                .map(this::mapEntityToDto)
+        CitizenProfileCache.Entry cached = profileCache.getByEmail(email);
+        if (cached != null) {
+            return cached.copyOfProfile();
+        }
+        long generation = profileCache.generation(email);
+        return citizenProfileRepository.findWithUserByEmail(email)
+                .map(profile -> {
+                    CitizenProfileDTO dto = mapEntityToDto(profile);
+                    profileCache.put(email, profile.getUser().getId(), dto, generation);
+                    return dto;
+                })
                 .orElse(null);
     }
 
+    /**
+     * The caller's profile and user, as needed to link a new application. On a cache hit no query runs and
+     * detached copies carrying the ids are returned (like ServiceCatalogue.Entry.toEntity); otherwise the
+     * profile is loaded together with its user in one statement and cached.
+     */
+    @Transactional(readOnly = true)
+    public CitizenProfile getProfileForApplication(String email) {
+        CitizenProfileCache.Entry cached = profileCache.getByEmail(email);
+        if (cached == null) {
+            long generation = profileCache.generation(email);
+            CitizenProfile profile = citizenProfileRepository.findWithUserByEmail(email)
+                    .orElseThrow(() -> new RuntimeException("Citizen profile not found. Please create a profile first."));
+            profileCache.put(email, profile.getUser().getId(), mapEntityToDto(profile), generation);
+            return profile;
+        }
+
+        User user = new User();
+        user.setId(cached.getUserId());
+        user.setEmail(email);
+        CitizenProfile profile = new CitizenProfile();
+        profile.setId(cached.getProfileId());
+        profile.setUser(user);
+        mapDtoToEntity(cached.copyOfProfile(), profile);
+        return profile;
+    }
+
     private void mapDtoToEntity(CitizenProfileDTO dto, CitizenProfile entity) {
         entity.setName(dto.getName());
         entity.setFathersName(dto.getFathersName());
@@ -0,0 +1,142 @@
+package com.govportal.backend.service;
+
+import com.govportal.backend.entity.Document;
+import com.govportal.backend.entity.DocumentProcessingJob;
+import com.govportal.backend.repository.DocumentProcessingJobRepository;
+import com.govportal.backend.repository.DocumentRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background pipeline for uploaded documents. Uploads only insert a row into document_processing_jobs
+ * (in the same transaction as the Document), so the request returns as soon as the original is stored.
+ * A poller claims pending jobs and runs them on a small bounded worker pool; failed jobs are retried a
+ * few times and jobs left RUNNING by a crashed node are put back in the queue.
+ */
+@Service
+public class DocumentProcessingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentProcessingService.class);
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final DocumentRepository documentRepository;
+    private final DocumentProcessingJobRepository jobRepository;
+    private final DocumentProcessor documentProcessor;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor workers;
+
+    // RUNNING jobs not updated for this long are considered abandoned
+    @Value("${documents.processing.stale-after-ms:600000}")
+    private long staleAfterMs;
+
+    public DocumentProcessingService(DocumentRepository documentRepository,
+                                     DocumentProcessingJobRepository jobRepository,
+                                     DocumentProcessor documentProcessor,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${documents.processing.workers:2}") int workerCount,
+                                     @Value("${documents.processing.queue-capacity:50}") int queueCapacity) {
+        this.documentRepository = documentRepository;
+        this.jobRepository = jobRepository;
+        this.documentProcessor = documentProcessor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "document-worker-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // Saves the document and its processing job atomically, so no upload is ever left unprocessed
+    @Transactional
+    public Document saveAndEnqueue(Document document) {
+        Document saved = documentRepository.save(document);
+        DocumentProcessingJob job = new DocumentProcessingJob();
+        job.setDocumentId(saved.getId());
+        jobRepository.save(job);
+        return saved;
+    }
+
+    // Multi-file variant of saveAndEnqueue: documents and jobs go to the database as two JDBC batches
+    @Transactional
+    public List<Document> saveAllAndEnqueue(List<Document> documents) {
+        List<Document> saved = documentRepository.saveAll(documents);
+        List<DocumentProcessingJob> jobs = new ArrayList<>(saved.size());
+        for (Document document : saved) {
+            DocumentProcessingJob job = new DocumentProcessingJob();
+            job.setDocumentId(document.getId());
+            jobs.add(job);
+        }
+        jobRepository.saveAll(jobs);
+        return saved;
+    }
+
+    @Scheduled(fixedDelayString = "${documents.processing.poll-interval-ms:10000}")
+    public void dispatch() {
+        // Only claim what the pool can take right now; everything else stays PENDING in the table
+        int capacity = workers.getQueue().remainingCapacity() + workers.getMaximumPoolSize() - workers.getActiveCount();
+        if (capacity <= 0) {
+            return;
+        }
+        List<Long> claimed = transactionTemplate.execute(status -> {
+            // A job that keeps killing its worker (e.g. the whole node) must not be handed out forever
+            Timestamp cutoff = new Timestamp(System.currentTimeMillis() - staleAfterMs);
+            jobRepository.failStale(cutoff, MAX_ATTEMPTS);
+            jobRepository.requeueStale(cutoff);
+            List<Long> ids = new ArrayList<>();
+            for (DocumentProcessingJob job : jobRepository.findPendingForUpdate(Limit.of(capacity))) {
+                job.setStatus(DocumentProcessingJob.JobStatus.RUNNING);
+                job.setAttempts(job.getAttempts() + 1);
+                ids.add(job.getId());
+            }
+            return ids;
+        });
+        for (Long jobId : claimed) {
+            workers.execute(() -> run(jobId));
+        }
+    }
+
+    private void run(Long jobId) {
+        DocumentProcessingJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        try {
+            documentProcessor.process(job.getDocumentId());
+            job.setStatus(DocumentProcessingJob.JobStatus.DONE);
+            job.setLastError(null);
+        } catch (Exception | Error ex) {
+            logger.warn("Processing of document {} failed (attempt {}): {}", job.getDocumentId(), job.getAttempts(), ex.toString());
+            // An Error (e.g. OutOfMemoryError) would only happen again, so it is not retried
+            job.setStatus(ex instanceof Error || job.getAttempts() >= MAX_ATTEMPTS
+                    ? DocumentProcessingJob.JobStatus.FAILED
+                    : DocumentProcessingJob.JobStatus.PENDING);
+            String message = ex.toString();
+            job.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+        }
+        jobRepository.save(job);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+}
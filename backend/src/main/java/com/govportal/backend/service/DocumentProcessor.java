@@ -0,0 +1,212 @@
+package com.govportal.backend.service;
+
+import com.govportal.backend.entity.Document;
+import com.govportal.backend.repository.DocumentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The work done for one uploaded document by the background pipeline: validate the real file type from its
+ * magic bytes, render a small JPEG preview for images and recompress images that are too large.
+ */
+@Component
+public class DocumentProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentProcessor.class);
+
+    private static final Set<String> ALLOWED_CONTENT_TYPES = Set.of("application/pdf", "image/jpeg", "image/png", "image/gif");
+    private static final Set<String> IMAGE_CONTENT_TYPES = Set.of("image/jpeg", "image/png", "image/gif");
+
+    private final DocumentRepository documentRepository;
+    private final FileStorageService fileStorageService;
+
+    @Value("${documents.processing.preview-size:320}")
+    private int previewSize;
+
+    // Images larger than this (bytes) also get a recompressed copy
+    @Value("${documents.processing.compress-threshold-bytes:2097152}")
+    private long compressThresholdBytes;
+
+    @Value("${documents.processing.compress-max-dimension:2000}")
+    private int compressMaxDimension;
+
+    // Header limits checked before an image is decoded; 40 MP is about 160 MB as a decoded RGBA image
+    @Value("${documents.processing.max-image-pixels:40000000}")
+    private long maxImagePixels;
+
+    @Value("${documents.processing.max-image-dimension:20000}")
+    private int maxImageDimension;
+
+    public DocumentProcessor(DocumentRepository documentRepository, FileStorageService fileStorageService) {
+        this.documentRepository = documentRepository;
+        this.fileStorageService = fileStorageService;
+    }
+
+    public void process(Long documentId) throws IOException {
+        Document doc = documentRepository.findById(documentId)
+                .orElseThrow(() -> new RuntimeException("Document not found with ID: " + documentId));
+        Resource file = fileStorageService.loadAsResource(doc.getFilePath());
+
+        String contentType = detectContentType(file);
+        doc.setDetectedContentType(contentType);
+        if (!ALLOWED_CONTENT_TYPES.contains(contentType)) {
+            doc.setValidationStatus(Document.ValidationStatus.INVALID);
+            documentRepository.save(doc);
+            logger.info("Document {} rejected, detected type {}", documentId, contentType);
+            return;
+        }
+        doc.setValidationStatus(Document.ValidationStatus.VALID);
+
+        // Derivatives written by this attempt; given back unless the document that points at them is saved
+        List<StoredFile> derivatives = new ArrayList<>();
+        boolean saved = false;
+        try {
+            if (IMAGE_CONTENT_TYPES.contains(contentType)) {
+                BufferedImage image;
+                try (InputStream in = file.getInputStream();
+                     ImageInputStream input = ImageIO.createImageInputStream(in)) {
+                    image = readBounded(input, doc);
+                }
+                if (image != null) {
+                    StoredFile preview = storeJpeg(scaleDown(image, previewSize), 0.75f, "preview.jpg");
+                    derivatives.add(preview);
+                    doc.setPreviewPath(preview.getStoredName());
+                    if (file.contentLength() > compressThresholdBytes) {
+                        StoredFile compressed = storeJpeg(scaleDown(image, compressMaxDimension), 0.8f, "compressed.jpg");
+                        derivatives.add(compressed);
+                        doc.setCompressedPath(compressed.getStoredName());
+                    }
+                }
+            }
+            documentRepository.save(doc);
+            saved = true;
+        } finally {
+            if (!saved) {
+                derivatives.forEach(this::discard);
+            }
+        }
+    }
+
+    private void discard(StoredFile storedFile) {
+        try {
+            fileStorageService.discardFile(storedFile);
+        } catch (RuntimeException ex) {
+            logger.warn("Could not discard derivative {}: {}", storedFile.getStoredName(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Decodes the image only after checking the dimensions in its header, so a small file that declares a huge
+     * canvas (a decompression bomb) is rejected instead of exhausting the heap. Returns null, with the document
+     * marked INVALID, for such images; null without a status change when no reader understands the data.
+     */
+    private BufferedImage readBounded(ImageInputStream input, Document doc) throws IOException {
+        Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : Collections.emptyIterator();
+        if (!readers.hasNext()) {
+            return null;
+        }
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(input, true, true);
+            long width = reader.getWidth(0);
+            long height = reader.getHeight(0);
+            if (width > maxImageDimension || height > maxImageDimension || width * height > maxImagePixels) {
+                doc.setValidationStatus(Document.ValidationStatus.INVALID);
+                logger.info("Document {} rejected, image is {}x{} pixels", doc.getId(), width, height);
+                return null;
+            }
+            return reader.read(0);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    // Recognises the formats citizens are asked to upload; anything else is reported as octet-stream
+    private static String detectContentType(Resource file) throws IOException {
+        byte[] header;
+        try (InputStream in = file.getInputStream()) {
+            header = in.readNBytes(8);
+        }
+        if (startsWith(header, 0x25, 0x50, 0x44, 0x46)) {
+            return "application/pdf";
+        }
+        if (startsWith(header, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (startsWith(header, 0x89, 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return "image/png";
+        }
+        if (startsWith(header, 0x47, 0x49, 0x46, 0x38)) {
+            return "image/gif";
+        }
+        return "application/octet-stream";
+    }
+
+    private static boolean startsWith(byte[] data, int... magic) {
+        if (data.length < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if ((data[i] & 0xFF) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static BufferedImage scaleDown(BufferedImage source, int maxDimension) {
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        // Always redraw onto RGB so PNG/GIF transparency does not break the JPEG encoder
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private StoredFile storeJpeg(BufferedImage image, float quality, String fileName) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return fileStorageService.storeStream(new ByteArrayInputStream(bytes.toByteArray()), fileName, Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,132 @@
+package com.govportal.backend.service;
+
+import com.govportal.backend.entity.Application;
+import com.govportal.backend.entity.Document;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Handles uploads of several documents for one application in a single request. The files are written to
+ * storage concurrently on a small bounded pool (when it is saturated the request thread writes the file
+ * itself), then all Document rows are inserted in one transaction. If any write or the insert fails, the files
+ * already written are discarded (references released, or per-upload copies deleted in uuid mode).
+ */
+@Service
+public class DocumentUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentUploadService.class);
+    public static final int MAX_FILES_PER_UPLOAD = 10;
+
+    private final FileStorageService fileStorageService;
+    private final DocumentProcessingService documentProcessingService;
+    private final ThreadPoolExecutor writers;
+
+    public DocumentUploadService(FileStorageService fileStorageService,
+                                 DocumentProcessingService documentProcessingService,
+                                 @Value("${documents.upload.workers:4}") int workerCount,
+                                 @Value("${documents.upload.queue-capacity:32}") int queueCapacity) {
+        this.fileStorageService = fileStorageService;
+        this.documentProcessingService = documentProcessingService;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.writers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "document-upload-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public List<Document> uploadAll(Application application, List<MultipartFile> files, List<String> documentTypes) {
+        if (files == null || files.isEmpty()) {
+            throw new RuntimeException("At least one file is required.");
+        }
+        if (files.size() > MAX_FILES_PER_UPLOAD) {
+            throw new RuntimeException("A single upload can contain at most " + MAX_FILES_PER_UPLOAD + " files.");
+        }
+        if (documentTypes == null || documentTypes.size() != files.size()) {
+            throw new RuntimeException("Each file needs a matching documentType.");
+        }
+
+        List<CompletableFuture<StoredFile>> writes = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            writes.add(CompletableFuture.supplyAsync(() -> fileStorageService.storeFile(file), writers));
+        }
+
+        List<StoredFile> storedFiles = new ArrayList<>(files.size());
+        RuntimeException failure = null;
+        for (CompletableFuture<StoredFile> write : writes) {
+            try {
+                storedFiles.add(write.join());
+            } catch (CompletionException ex) {
+                if (failure == null) {
+                    failure = ex.getCause() instanceof RuntimeException cause ? cause : ex;
+                }
+            }
+        }
+        if (failure != null) {
+            // Nothing is saved unless every file was stored; undo the writes that did succeed
+            storedFiles.forEach(this::discard);
+            throw failure;
+        }
+
+        List<Document> documents = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            StoredFile storedFile = storedFiles.get(i);
+            Document doc = new Document();
+            doc.setApplication(application);
+            doc.setDocumentType(documentTypes.get(i));
+            doc.setFileName(files.get(i).getOriginalFilename());
+            doc.setFilePath(storedFile.getStoredName());
+            doc.setContentHash(storedFile.getContentHash());
+            documents.add(doc);
+        }
+        try {
+            List<Document> saved = documentProcessingService.saveAllAndEnqueue(documents);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                // Joined the caller's transaction, which can still roll back
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status == STATUS_ROLLED_BACK) {
+                            storedFiles.forEach(DocumentUploadService.this::discard);
+                        }
+                    }
+                });
+            }
+            return saved;
+        } catch (RuntimeException ex) {
+            storedFiles.forEach(this::discard);
+            throw ex;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdown();
+    }
+
+    private void discard(StoredFile storedFile) {
+        try {
+            fileStorageService.discardFile(storedFile);
+        } catch (RuntimeException ex) {
+            logger.warn("Could not discard stored file {}: {}", storedFile.getStoredName(), ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.govportal.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per-client token buckets for the public feedback endpoint. Each bucket is updated with a compare-and-set
+ * loop, so concurrent requests from different clients never contend on a lock. Buckets that have been idle
+ * long enough to refill completely are dropped by a periodic sweep; once max-clients buckets exist, new
+ * clients share a single overflow bucket until the sweep makes room.
+ */
+@Component
+public class FeedbackRateLimiter {
+
+    private static final String OVERFLOW_KEY = "";
+
+    private final ConcurrentHashMap<String, AtomicReference<BucketState>> buckets = new ConcurrentHashMap<>();
+    private final double capacity;
+    private final double tokensPerNano;
+    private final int maxClients;
+
+    public FeedbackRateLimiter(@Value("${feedback.rate-limit.burst:5}") int burst,
+                               @Value("${feedback.rate-limit.per-minute:10}") int perMinute,
+                               @Value("${feedback.rate-limit.max-clients:100000}") int maxClients) {
+        this.capacity = Math.max(1, burst);
+        this.tokensPerNano = Math.max(1, perMinute) / (double) TimeUnit.MINUTES.toNanos(1);
+        this.maxClients = maxClients;
+    }
+
+    /**
+     * Takes one token from the client's bucket. Returns 0 when the request may proceed, otherwise the number
+     * of seconds until a token will be available (for Retry-After).
+     */
+    public long tryAcquire(String clientKey) {
+        AtomicReference<BucketState> bucket = buckets.get(clientKey);
+        if (bucket == null) {
+            String key = buckets.size() < maxClients ? clientKey : OVERFLOW_KEY;
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicReference<>(new BucketState(capacity, System.nanoTime())));
+        }
+
+        while (true) {
+            long now = System.nanoTime();
+            BucketState current = bucket.get();
+            double tokens = Math.min(capacity, current.tokens + (now - current.refilledAt) * tokensPerNano);
+            if (tokens < 1) {
+                long waitNanos = (long) Math.ceil((1 - tokens) / tokensPerNano);
+                return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+            }
+            if (bucket.compareAndSet(current, new BucketState(tokens - 1, now))) {
+                return 0;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${feedback.rate-limit.sweep-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        // A bucket that would be full again is indistinguishable from a new one
+        long fullRefillNanos = (long) Math.ceil(capacity / tokensPerNano);
+        buckets.values().removeIf(bucket -> now - bucket.get().refilledAt >= fullRefillNanos);
+    }
+
+    private record BucketState(double tokens, long refilledAt) {
+    }
+}
@@ -0,0 +1,66 @@
+package com.govportal.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Tracks whether the FULLTEXT index behind feedback search exists. JPA cannot declare it and adding it to a
+ * large table rebuilds the table, so it is created by a one-off migration (see README, "Database migrations")
+ * rather than by the application. Until it exists, search answers 503 instead of failing inside MySQL.
+ */
+@Component
+public class FeedbackSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedbackSearchIndex.class);
+
+    public static final String INDEX_NAME = "ft_feedback_text";
+    private static final String MIGRATION = "ALTER TABLE feedback ADD FULLTEXT INDEX " + INDEX_NAME + " (subject, message)";
+
+    // A missing index is looked up again at most this often, so search calls do not each query the catalogue
+    private static final long RECHECK_INTERVAL_MS = 60_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile boolean available;
+    private volatile long checkedAt;
+
+    public FeedbackSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkAtStartup() {
+        try {
+            if (!check()) {
+                logger.error("Feedback search is disabled until the FULLTEXT index exists. Run: {};", MIGRATION);
+            }
+        } catch (Exception ex) {
+            logger.warn("Could not check for the feedback FULLTEXT index: {}", ex.getMessage());
+        }
+    }
+
+    public void ensureAvailable() {
+        if (available) {
+            return;
+        }
+        if (System.currentTimeMillis() - checkedAt < RECHECK_INTERVAL_MS || !check()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Feedback search is not available: the " + INDEX_NAME + " index has not been created.");
+        }
+    }
+
+    private boolean check() {
+        checkedAt = System.currentTimeMillis();
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.statistics " +
+                "WHERE table_schema = DATABASE() AND table_name = 'feedback' AND index_name = ?",
+                Integer.class, INDEX_NAME);
+        available = count != null && count > 0;
+        return available;
+    }
+}
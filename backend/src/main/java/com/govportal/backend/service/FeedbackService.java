@@ -2,55 +2,131 @@ package com.govportal.backend.service;
 
 import com.govportal.backend.dto.FeedbackDTO;
 import com.govportal.backend.dto.FeedbackListItemDTO; // Import the new DTO
-import com.govportal.backend.entity.Admin;
+import com.govportal.backend.dto.FeedbackPageDTO;
+import com.govportal.backend.dto.FeedbackSearchHitDTO;
 import com.govportal.backend.entity.Feedback;
 import com.govportal.backend.entity.User;
-import com.govportal.backend.repository.AdminRepository;
 import com.govportal.backend.repository.FeedbackRepository;
-import com.govportal.backend.repository.UserRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
 
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List; // Import List
-import java.util.Optional;
-import java.util.stream.Collectors; // Import Collectors
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 public class FeedbackService {
 
+    public static final int MAX_PAGE_SIZE = 200;
+    // Characters of the message included in inbox rows
+    public static final int PREVIEW_LENGTH = 200;
+    public static final int MAX_SEARCH_RESULTS = 100;
+    private static final int MAX_SEARCH_TERMS = 10;
+    private static final int MIN_SEARCH_TERM_LENGTH = 3;
+    private static final int SNIPPET_LENGTH = 200;
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
     private final FeedbackRepository feedbackRepository;
-    private final UserRepository userRepository;
-    private final AdminRepository adminRepository;
+    private final IdentityService identityService;
+    private final FeedbackWriteBuffer feedbackWriteBuffer;
+    private final FeedbackSearchIndex feedbackSearchIndex;
 
-    public FeedbackService(FeedbackRepository feedbackRepository, UserRepository userRepository,
-            AdminRepository adminRepository) {
+    public FeedbackService(FeedbackRepository feedbackRepository, IdentityService identityService,
+                           FeedbackWriteBuffer feedbackWriteBuffer, FeedbackSearchIndex feedbackSearchIndex) {
         this.feedbackRepository = feedbackRepository;
-        this.userRepository = userRepository;
-        this.adminRepository = adminRepository;
+        this.identityService = identityService;
+        this.feedbackWriteBuffer = feedbackWriteBuffer;
+        this.feedbackSearchIndex = feedbackSearchIndex;
     }
 
-    @Transactional
-    public Feedback saveFeedback(FeedbackDTO feedbackDTO, String userEmail) {
-        Feedback feedback = new Feedback();
-        feedback.setFeedbackType(feedbackDTO.getFeedbackType());
-        feedback.setSubject(feedbackDTO.getSubject());
-        feedback.setMessage(feedbackDTO.getMessage());
-        feedback.setStatus(Feedback.FeedbackStatus.New);
-
-        if (userEmail != null) {
-            Optional<User> userOptional = userRepository.findByEmail(userEmail);
-            userOptional.ifPresent(feedback::setUser);
-        }
+    /**
+     * Accepts a submission into the write-behind buffer; it is inserted with the next batch. Returns false
+     * when the buffer is full and the submission was not taken.
+     */
+    public boolean submitFeedback(FeedbackDTO feedbackDTO, String userEmail) {
+        // The user id usually comes from the token claims; the proxy's id is read without a query
+        Long userId = userEmail != null ? identityService.findUser(userEmail).map(User::getId).orElse(null) : null;
+        return feedbackWriteBuffer.offer(new FeedbackWriteBuffer.PendingFeedback(userId, feedbackDTO.getFeedbackType(),
+                feedbackDTO.getSubject(), feedbackDTO.getMessage(), new Timestamp(System.currentTimeMillis())));
+    }
 
-        return feedbackRepository.save(feedback);
+    /**
+     * One newest-first page of the admin inbox. Each row carries the submitter's email (joined in the same
+     * query) and a preview of the message; the full text is loaded by getFeedback.
+     */
+    @Transactional(readOnly = true)
+    public FeedbackPageDTO getFeedbackPage(Long beforeId, int size, Feedback.FeedbackStatus status,
+                                           Feedback.FeedbackType feedbackType, LocalDate fromDate, LocalDate toDate) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page follows
+        List<FeedbackListItemDTO> rows = feedbackRepository.findInboxItems(
+                beforeId != null ? beforeId : Long.MAX_VALUE, status, feedbackType,
+                fromDate != null ? Timestamp.valueOf(fromDate.atStartOfDay()) : null,
+                toDate != null ? Timestamp.valueOf(toDate.plusDays(1).atStartOfDay()) : null,
+                PREVIEW_LENGTH, Limit.of(pageSize + 1));
+
+        Long nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = rows.get(pageSize - 1).getId();
+        }
+        return new FeedbackPageDTO(rows, nextCursor);
     }
 
-    // Add the following methods
     @Transactional(readOnly = true)
-    public List<FeedbackListItemDTO> getAllFeedback() {
-        return feedbackRepository.findAll().stream()
+    public FeedbackListItemDTO getFeedback(Long feedbackId) {
+        return feedbackRepository.findWithUserById(feedbackId)
                 .map(this::mapEntityToDto)
-                .collect(Collectors.toList());
+                .orElseThrow(() -> new RuntimeException("Feedback not found with ID: " + feedbackId));
+    }
+
+    /**
+     * Ranked keyword search over subject and message. Every word in the query must appear (as a word or
+     * word prefix); results come from the FULLTEXT index, best match first, with the matches highlighted.
+     */
+    @Transactional(readOnly = true)
+    public List<FeedbackSearchHitDTO> searchFeedback(String query, int size, Feedback.FeedbackStatus status,
+                                                     Feedback.FeedbackType feedbackType) {
+        feedbackSearchIndex.ensureAvailable();
+        List<String> terms = extractSearchTerms(query);
+        if (terms.isEmpty()) {
+            throw new RuntimeException("Search query must contain a word of at least " + MIN_SEARCH_TERM_LENGTH + " characters.");
+        }
+        // Required prefix terms: "+water* +supply*"
+        String booleanQuery = terms.stream().map(term -> "+" + term + "*").collect(Collectors.joining(" "));
+        Pattern highlighter = Pattern.compile(
+                "\\b(?:" + terms.stream().map(Pattern::quote).collect(Collectors.joining("|")) + ")\\w*",
+                Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.UNICODE_CHARACTER_CLASS);
+
+        int limit = Math.max(1, Math.min(size, MAX_SEARCH_RESULTS));
+        List<Object[]> rows = feedbackRepository.searchFeedback(booleanQuery,
+                status != null ? status.name() : null, feedbackType != null ? feedbackType.name() : null, limit);
+
+        List<FeedbackSearchHitDTO> hits = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            FeedbackSearchHitDTO hit = new FeedbackSearchHitDTO();
+            hit.setId(((Number) row[0]).longValue());
+            hit.setUserEmail((String) row[1]);
+            hit.setFeedbackType(Feedback.FeedbackType.valueOf((String) row[2]));
+            hit.setSubject((String) row[3]);
+            hit.setStatus(Feedback.FeedbackStatus.valueOf((String) row[5]));
+            hit.setSubmissionDate(toTimestamp(row[6]));
+            hit.setScore(((Number) row[7]).doubleValue());
+            hit.setHighlightedSubject(highlight(hit.getSubject(), highlighter));
+            hit.setSnippet(snippet((String) row[4], highlighter));
+            hits.add(hit);
+        }
+        return hits;
     }
 
     @Transactional
@@ -61,9 +137,7 @@ public class FeedbackService {
 
         // Set the admin who updated the status
         if (adminUsername != null) {
-            Admin admin = adminRepository.findByUsername(adminUsername)
-                    .orElseThrow(() -> new RuntimeException("Admin not found with username: " + adminUsername));
-            feedback.setAdmin(admin);
+            feedback.setAdmin(identityService.getAdmin(adminUsername));
         }
 
         feedback.setStatus(newStatus);
@@ -71,6 +145,49 @@ public class FeedbackService {
         return mapEntityToDto(updatedFeedback); // Return the mapped DTO
     }
 
+    // Letters and digits only, so nothing in the input is read as a MySQL boolean-mode operator
+    private static List<String> extractSearchTerms(String query) {
+        if (query == null) {
+            return List.of();
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        for (String word : NON_WORD.split(query.toLowerCase(Locale.ROOT))) {
+            // Shorter words are not in the index (innodb_ft_min_token_size) and would match nothing
+            if (word.length() >= MIN_SEARCH_TERM_LENGTH && terms.size() < MAX_SEARCH_TERMS) {
+                terms.add(word);
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    // The part of the message around the first match, or its beginning when only the subject matched
+    private static String snippet(String message, Pattern highlighter) {
+        Matcher matcher = highlighter.matcher(message);
+        int start = matcher.find() ? Math.max(0, matcher.start() - SNIPPET_LENGTH / 4) : 0;
+        int end = Math.min(message.length(), start + SNIPPET_LENGTH);
+        String window = message.substring(start, end);
+        return (start > 0 ? "…" : "") + highlight(window, highlighter) + (end < message.length() ? "…" : "");
+    }
+
+    private static String highlight(String text, Pattern highlighter) {
+        Matcher matcher = highlighter.matcher(text);
+        StringBuilder result = new StringBuilder(text.length() + 32);
+        int last = 0;
+        while (matcher.find()) {
+            result.append(HtmlUtils.htmlEscape(text.substring(last, matcher.start())))
+                    .append("<mark>").append(HtmlUtils.htmlEscape(matcher.group())).append("</mark>");
+            last = matcher.end();
+        }
+        return result.append(HtmlUtils.htmlEscape(text.substring(last))).toString();
+    }
+
+    private static Timestamp toTimestamp(Object value) {
+        if (value instanceof LocalDateTime localDateTime) {
+            return Timestamp.valueOf(localDateTime);
+        }
+        return (Timestamp) value;
+    }
+
     private FeedbackListItemDTO mapEntityToDto(Feedback feedback) {
         FeedbackListItemDTO dto = new FeedbackListItemDTO();
         dto.setId(feedback.getId());
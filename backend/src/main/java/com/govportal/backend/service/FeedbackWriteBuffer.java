@@ -0,0 +1,175 @@
+package com.govportal.backend.service;
+
+import com.govportal.backend.entity.Feedback;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded write-behind buffer for submitted feedback. A single flusher thread writes accepted submissions
+ * with one batched INSERT as soon as batch-size rows are waiting, or after flush-interval-ms otherwise, so a
+ * burst of submissions costs a few connections instead of one per request. When the buffer is full, offer
+ * refuses the submission and the caller has to push back on the client.
+ * A batch that fails for anything but a transient error is retried row by row, so a bad row only loses itself;
+ * every row that cannot be written is logged. Rows still buffered when the process is killed without a
+ * shutdown are lost; a normal shutdown flushes them.
+ */
+@Component
+public class FeedbackWriteBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedbackWriteBuffer.class);
+
+    private static final int MAX_FLUSH_ATTEMPTS = 3;
+
+    private static final String INSERT_FEEDBACK =
+            "INSERT INTO feedback (user_id, feedback_type, subject, message, status, submission_date, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    public record PendingFeedback(Long userId, Feedback.FeedbackType feedbackType, String subject, String message,
+                                  Timestamp submittedAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<PendingFeedback> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    public FeedbackWriteBuffer(JdbcTemplate jdbcTemplate,
+                               @Value("${feedback.buffer.capacity:10000}") int capacity,
+                               @Value("${feedback.buffer.batch-size:500}") int batchSize,
+                               @Value("${feedback.buffer.flush-interval-ms:1000}") long flushIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.flusher = new Thread(this::run, "feedback-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    // False when the buffer is full
+    public boolean offer(PendingFeedback feedback) {
+        return running && queue.offer(feedback);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+        List<PendingFeedback> remaining = new ArrayList<>(batchSize);
+        // Loop until empty: an offer that passed the running check just before shutdown may still land
+        while (queue.drainTo(remaining, batchSize) > 0) {
+            write(remaining);
+            remaining.clear();
+        }
+    }
+
+    private void run() {
+        List<PendingFeedback> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingFeedback first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Linger until the batch is full or the first row has waited a whole interval
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remainingNanos <= 0) {
+                        break;
+                    }
+                    PendingFeedback next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException ex) {
+                // Shutting down; write what was already taken, the rest of the queue is flushed by shutdown().
+                // The interrupt flag is clear again here, so the pool still hands out a connection.
+                if (!batch.isEmpty()) {
+                    write(batch);
+                }
+                return;
+            }
+        }
+    }
+
+    private void write(List<PendingFeedback> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_FEEDBACK, batch, batch.size(), (ps, feedback) -> bind(ps, feedback));
+                logger.debug("Wrote {} buffered feedback rows", batch.size());
+                return;
+            } catch (TransientDataAccessException ex) {
+                if (attempt >= MAX_FLUSH_ATTEMPTS) {
+                    break;
+                }
+                logger.warn("Writing {} feedback rows failed (attempt {}): {}", batch.size(), attempt, ex.getMessage());
+                try {
+                    Thread.sleep(flushIntervalMs * attempt);
+                } catch (InterruptedException interrupted) {
+                    // Shutting down: one last try row by row; running is already false, so the loop ends after it
+                    break;
+                }
+            } catch (RuntimeException ex) {
+                // Most likely one bad row; don't let it take the rest of the batch down with it
+                logger.warn("Writing {} feedback rows as a batch failed, retrying them one by one: {}",
+                        batch.size(), ex.getMessage());
+                break;
+            }
+        }
+        writeOneByOne(batch);
+    }
+
+    private void writeOneByOne(List<PendingFeedback> batch) {
+        for (PendingFeedback feedback : batch) {
+            try {
+                jdbcTemplate.update(INSERT_FEEDBACK, ps -> bind(ps, feedback));
+            } catch (RuntimeException ex) {
+                logDropped(feedback, ex.getMessage());
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement ps, PendingFeedback feedback) throws SQLException {
+        if (feedback.userId() != null) {
+            ps.setLong(1, feedback.userId());
+        } else {
+            ps.setNull(1, Types.BIGINT);
+        }
+        ps.setString(2, feedback.feedbackType().name());
+        ps.setString(3, feedback.subject());
+        ps.setString(4, feedback.message());
+        ps.setString(5, Feedback.FeedbackStatus.New.name());
+        ps.setTimestamp(6, feedback.submittedAt());
+        ps.setTimestamp(7, feedback.submittedAt());
+    }
+
+    private static void logDropped(PendingFeedback feedback, String reason) {
+        logger.error("Dropped feedback from user {} submitted at {} ({}, subject \"{}\", {} characters): {}",
+                feedback.userId(), feedback.submittedAt(), feedback.feedbackType(), feedback.subject(),
+                feedback.message().length(), reason);
+    }
+}
@@ -1,24 +1,64 @@
 package com.govportal.backend.service;
 
+import com.govportal.backend.entity.StoredBlob;
+import com.govportal.backend.repository.StoredBlobRepository;
+import com.govportal.backend.storage.StorageBackend;
+import com.govportal.backend.storage.StoredObjectResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.UUID;
 
 @Service
 public class FileStorageService {
 
+    private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
+    private static final long TRANSFER_CHUNK_BYTES = 1024 * 1024;
+
+    // Local staging area: uploads are written and hashed here before being handed to the storage backend
     private final Path fileStorageLocation;
+    private final StoredBlobRepository storedBlobRepository;
+    private final StorageBackend storageBackend;
+
+    // "content-addressed" stores each unique file once under ab/cd/<sha256>; "uuid" keeps one copy per upload
+    private final boolean contentAddressed;
+
+    // Unreferenced blobs are only deleted after this grace period
+    @Value("${file.blob-retention-ms:86400000}")
+    private long blobRetentionMs;
 
-    public FileStorageService(@Value("${file.upload-dir}") String uploadDir) {
+    public FileStorageService(@Value("${file.upload-dir}") String uploadDir,
+                              @Value("${file.storage-mode:uuid}") String storageMode,
+                              StoredBlobRepository storedBlobRepository,
+                              StorageBackend storageBackend) {
         this.fileStorageLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.contentAddressed = "content-addressed".equalsIgnoreCase(storageMode);
+        this.storedBlobRepository = storedBlobRepository;
+        this.storageBackend = storageBackend;
 
         try {
             Files.createDirectories(this.fileStorageLocation);
@@ -27,31 +67,158 @@ public class FileStorageService {
         }
     }
 
-    public String storeFile(MultipartFile file) {
+    public StoredFile storeFile(MultipartFile file) {
+        try (InputStream inputStream = file.getInputStream()) {
+            return storeStream(inputStream, file.getOriginalFilename(), Long.MAX_VALUE);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not store file " + file.getOriginalFilename() + ". Please try again!", ex);
+        }
+    }
+
+    /**
+     * Stages the stream in a temp file through one channel transfer, computing size and SHA-256 on the way, and
+     * then stores it in the backend. Fails as soon as more than maxBytes have been read.
+     */
+    public StoredFile storeStream(InputStream inputStream, String originalFileName, long maxBytes) {
         // Normalize file name
-        String originalFileName = StringUtils.cleanPath(file.getOriginalFilename());
+        originalFileName = StringUtils.cleanPath(originalFileName);
         String fileExtension = "";
         try {
             // Check if the file's name contains invalid characters
             if (originalFileName.contains("..")) {
                 throw new RuntimeException("Sorry! Filename contains invalid path sequence " + originalFileName);
             }
-            
+
+            if (contentAddressed) {
+                return storeContentAddressed(inputStream, maxBytes);
+            }
+
             int dotIndex = originalFileName.lastIndexOf('.');
             if (dotIndex > 0) {
                 fileExtension = originalFileName.substring(dotIndex);
             }
-            
+
             // Create a unique filename to avoid collisions
             String uniqueFileName = UUID.randomUUID().toString() + fileExtension;
+            Path tempFile = Files.createTempFile(this.fileStorageLocation, "upload-", ".tmp");
+            try {
+                MessageDigest digest = sha256();
+                long size = transfer(new DigestInputStream(inputStream, digest), tempFile, maxBytes);
+                storageBackend.put(uniqueFileName, tempFile);
+                return new StoredFile(uniqueFileName, HexFormat.of().formatHex(digest.digest()), size);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not store file " + originalFileName + ". Please try again!", ex);
+        }
+    }
 
-            // Copy file to the target location (Replacing existing file with the same name)
-            Path targetLocation = this.fileStorageLocation.resolve(uniqueFileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+    /**
+     * Loads a name returned by storeFile. On the filesystem backend this is a FileSystemResource (so callers can
+     * use zero-copy transfers); other backends return a resource that streams from the object store.
+     */
+    public Resource loadAsResource(String storedFileName) {
+        Path localPath = storageBackend.localPath(storedFileName);
+        if (localPath != null) {
+            return new FileSystemResource(localPath);
+        }
+        return new StoredObjectResource(storageBackend, storedFileName);
+    }
 
-            return uniqueFileName;
+    // Drops one reference to a content-addressed blob; the file is removed later by deleteUnreferencedBlobs
+    public void releaseFile(String contentHash) {
+        if (contentAddressed && contentHash != null) {
+            storedBlobRepository.releaseReference(contentHash);
+        }
+    }
+
+    // Undoes a store whose Document was never saved: drops the blob reference, or in uuid mode deletes the copy
+    public void discardFile(StoredFile storedFile) {
+        if (contentAddressed) {
+            releaseFile(storedFile.getContentHash());
+            return;
+        }
+        try {
+            storageBackend.delete(storedFile.getStoredName());
         } catch (IOException ex) {
-            throw new RuntimeException("Could not store file " + originalFileName + ". Please try again!", ex);
+            throw new RuntimeException("Could not delete stored file " + storedFile.getStoredName(), ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${file.blob-sweep-interval-ms:3600000}", initialDelayString = "${file.blob-sweep-interval-ms:3600000}")
+    @Transactional
+    public void deleteUnreferencedBlobs() {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - blobRetentionMs);
+        List<StoredBlob> blobs = storedBlobRepository.findUnreferencedBefore(cutoff, Limit.of(500));
+        for (StoredBlob blob : blobs) {
+            try {
+                storageBackend.delete(blobPath(blob.getContentHash()));
+                storedBlobRepository.delete(blob);
+            } catch (IOException | RuntimeException ex) {
+                logger.warn("Could not delete unreferenced blob {}: {}", blob.getContentHash(), ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Hashes the stream while writing it to a temp file, then hands it to the backend as ab/cd/&lt;sha256&gt;. The
+     * reference is recorded first so a concurrent sweep (which locks the blob row) cannot delete the object under us,
+     * and given back if the write fails. Once this returns, the caller owns the reference: it must call discardFile
+     * if the Document that would hold it is not saved.
+     */
+    private StoredFile storeContentAddressed(InputStream inputStream, long maxBytes) throws IOException {
+        Path tempFile = Files.createTempFile(this.fileStorageLocation, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            long size = transfer(new DigestInputStream(inputStream, digest), tempFile, maxBytes);
+            String contentHash = HexFormat.of().formatHex(digest.digest());
+
+            String storedName = blobPath(contentHash);
+
+            storedBlobRepository.addReference(contentHash, size);
+            try {
+                if (storageBackend.exists(storedName)) {
+                    logger.debug("Deduplicated upload of blob {}", contentHash);
+                } else {
+                    storageBackend.put(storedName, tempFile);
+                }
+            } catch (IOException | RuntimeException ex) {
+                releaseFile(contentHash);
+                throw ex;
+            }
+            return new StoredFile(storedName, contentHash, size);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    // Copies the stream into the file with FileChannel.transferFrom, checking the size limit after every chunk
+    private static long transfer(InputStream inputStream, Path target, long maxBytes) throws IOException {
+        try (ReadableByteChannel source = Channels.newChannel(inputStream);
+             FileChannel destination = FileChannel.open(target, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long position = 0;
+            long transferred;
+            while ((transferred = destination.transferFrom(source, position, TRANSFER_CHUNK_BYTES)) > 0) {
+                position += transferred;
+                if (position > maxBytes) {
+                    throw new RuntimeException("File exceeds the maximum upload size of " + maxBytes + " bytes.");
+                }
+            }
+            return position;
+        }
+    }
+
+    private static String blobPath(String contentHash) {
+        return contentHash.substring(0, 2) + "/" + contentHash.substring(2, 4) + "/" + contentHash;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
         }
     }
 }
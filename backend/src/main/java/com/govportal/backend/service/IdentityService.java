@@ -0,0 +1,56 @@
+package com.govportal.backend.service;
+
+import com.govportal.backend.entity.Admin;
+import com.govportal.backend.entity.User;
+import com.govportal.backend.repository.AdminRepository;
+import com.govportal.backend.repository.UserRepository;
+import com.govportal.backend.security.RequestPrincipal;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+
+/**
+ * Turns the authenticated name into a User or Admin to link entities to. Inside a request the id comes from
+ * the JWT claims (RequestPrincipal) and a getReferenceById proxy is returned, so no query runs unless the
+ * entity's fields are actually read. Outside a request, or for tokens without the id claim, it falls back
+ * to the lookup by email/username.
+ */
+@Service
+public class IdentityService {
+
+    private final UserRepository userRepository;
+    private final AdminRepository adminRepository;
+    private final RequestPrincipal requestPrincipal;
+
+    public IdentityService(UserRepository userRepository, AdminRepository adminRepository, RequestPrincipal requestPrincipal) {
+        this.userRepository = userRepository;
+        this.adminRepository = adminRepository;
+        this.requestPrincipal = requestPrincipal;
+    }
+
+    public User getUser(String email) {
+        return findUser(email).orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    public Optional<User> findUser(String email) {
+        Long userId = inRequest() ? requestPrincipal.getUserId(email) : null;
+        if (userId != null) {
+            return Optional.of(userRepository.getReferenceById(userId));
+        }
+        return userRepository.findByEmail(email);
+    }
+
+    public Admin getAdmin(String username) {
+        Long adminId = inRequest() ? requestPrincipal.getAdminId(username) : null;
+        if (adminId != null) {
+            return adminRepository.getReferenceById(adminId);
+        }
+        return adminRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("Admin not found with username: " + username));
+    }
+
+    private static boolean inRequest() {
+        return RequestContextHolder.getRequestAttributes() != null;
+    }
+}
@@ -0,0 +1,114 @@
+package com.govportal.backend.service;
+
+import com.govportal.backend.entity.Application;
+import com.govportal.backend.entity.PaymentOutboxEvent;
+import com.govportal.backend.repository.ApplicationRepository;
+import com.govportal.backend.repository.PaymentOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Drains payment_outbox: marks the applications of newly recorded payments as paid with one bulk UPDATE per
+ * batch and deletes the applied events in the same transaction. Events are claimed with SKIP LOCKED, so
+ * several nodes can drain concurrently, and an event is only removed once its update has committed.
+ * When a batch fails, its events are retried one by one; each failure counts against the event's attempts,
+ * and an event that reaches payments.outbox.max-attempts is left in the table as a dead letter.
+ */
+@Component
+public class PaymentOutboxWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentOutboxWorker.class);
+
+    private final PaymentOutboxRepository paymentOutboxRepository;
+    private final ApplicationRepository applicationRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${payments.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${payments.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    public PaymentOutboxWorker(PaymentOutboxRepository paymentOutboxRepository,
+                               ApplicationRepository applicationRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.paymentOutboxRepository = paymentOutboxRepository;
+        this.applicationRepository = applicationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${payments.outbox.poll-interval-ms:2000}")
+    public void drain() {
+        int applied;
+        do {
+            try {
+                applied = transactionTemplate.execute(status -> applyBatch());
+            } catch (RuntimeException ex) {
+                logger.warn("Payment outbox batch failed, retrying its events one by one: {}", ex.getMessage());
+                applyOneByOne();
+                // Leave the rest for the next poll rather than hammering a failing database
+                return;
+            }
+        } while (applied == batchSize);
+    }
+
+    private void applyOneByOne() {
+        List<Long> eventIds = transactionTemplate.execute(status -> paymentOutboxRepository
+                .findBatchForUpdate(maxAttempts, Limit.of(batchSize)).stream()
+                .map(PaymentOutboxEvent::getId)
+                .toList());
+        for (Long eventId : eventIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> paymentOutboxRepository.findByIdForUpdate(eventId)
+                        .ifPresent(event -> {
+                            applicationRepository.updatePaymentStatusForIds(Set.of(event.getApplicationId()),
+                                    Application.PaymentStatus.COMPLETED);
+                            paymentOutboxRepository.delete(event);
+                        }));
+            } catch (RuntimeException ex) {
+                recordFailure(eventId, ex);
+            }
+        }
+    }
+
+    private void recordFailure(Long eventId, RuntimeException cause) {
+        try {
+            PaymentOutboxEvent event = transactionTemplate.execute(status -> {
+                paymentOutboxRepository.incrementAttempts(eventId);
+                return paymentOutboxRepository.findById(eventId).orElse(null);
+            });
+            if (event != null && event.getAttempts() >= maxAttempts) {
+                logger.error("Payment outbox event {} (payment {}, application {}) failed {} times and is dead-lettered: {}",
+                        eventId, event.getPaymentId(), event.getApplicationId(), event.getAttempts(), cause.getMessage());
+            } else {
+                logger.warn("Payment outbox event {} failed, it will be retried: {}", eventId, cause.getMessage());
+            }
+        } catch (RuntimeException ex) {
+            logger.warn("Could not record the failure of payment outbox event {}: {}", eventId, ex.getMessage());
+        }
+    }
+
+    private int applyBatch() {
+        List<PaymentOutboxEvent> events = paymentOutboxRepository.findBatchForUpdate(maxAttempts, Limit.of(batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        Set<Long> applicationIds = events.stream()
+                .map(PaymentOutboxEvent::getApplicationId)
+                .collect(Collectors.toSet());
+        applicationRepository.updatePaymentStatusForIds(applicationIds, Application.PaymentStatus.COMPLETED);
+        paymentOutboxRepository.deleteAllInBatch(events);
+        logger.debug("Applied {} payment outbox events", events.size());
+        return events.size();
+    }
+}
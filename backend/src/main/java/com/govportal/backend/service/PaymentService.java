@@ -1,68 +1,115 @@
-// ...existing code...
 package com.govportal.backend.service;
 
 import com.govportal.backend.dto.PaymentDTO;
-import com.govportal.backend.entity.Application;
 import com.govportal.backend.entity.Payment;
 import com.govportal.backend.repository.ApplicationRepository;
+import com.govportal.backend.repository.PaymentOutboxRepository;
 import com.govportal.backend.repository.PaymentRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
 import java.util.Date;
 
+/**
+ * Records payments reported by the bKash/Nagad/Rocket callbacks. Ingestion is idempotent on transactionId:
+ * the payment is written with a single upsert (no pre-check queries, no locks on the application row) and a
+ * replayed callback simply gets the stored payment back. The application's paymentStatus is updated
+ * asynchronously through the payment_outbox table (see PaymentOutboxWorker), written in the same transaction.
+ * Transaction ids the TransactionIdFilter has never seen skip the upsert bookkeeping and are inserted directly.
+ */
 @Service
 public class PaymentService {
 
     private static final Logger logger = LoggerFactory.getLogger(PaymentService.class);
 
+    // ER_NO_REFERENCED_ROW_2: the referenced parent row does not exist
+    private static final int MYSQL_NO_REFERENCED_ROW = 1452;
+
     private final PaymentRepository paymentRepository;
+    private final PaymentOutboxRepository paymentOutboxRepository;
     private final ApplicationRepository applicationRepository;
+    private final TransactionIdFilter transactionIdFilter;
+    private final TransactionTemplate transactionTemplate;
 
-    public PaymentService(PaymentRepository paymentRepository, ApplicationRepository applicationRepository) {
+    public PaymentService(PaymentRepository paymentRepository, PaymentOutboxRepository paymentOutboxRepository,
+                          ApplicationRepository applicationRepository, TransactionIdFilter transactionIdFilter,
+                          PlatformTransactionManager transactionManager) {
         this.paymentRepository = paymentRepository;
+        this.paymentOutboxRepository = paymentOutboxRepository;
         this.applicationRepository = applicationRepository;
+        this.transactionIdFilter = transactionIdFilter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    @Transactional
     public Payment processPayment(PaymentDTO paymentDTO) {
-        Application application = applicationRepository.findById(paymentDTO.getApplicationId())
-                .orElseThrow(() -> new RuntimeException("Application not found with ID: " + paymentDTO.getApplicationId()));
-
-        // Prevent duplicate payments for same application
-        if (application.getPayment() != null) {
-            throw new RuntimeException("Payment already exists for this application");
+        if (!transactionIdFilter.mightContain(paymentDTO.getTransactionId())) {
+            try {
+                Payment payment = transactionTemplate.execute(status -> insertNew(paymentDTO));
+                transactionIdFilter.add(paymentDTO.getTransactionId());
+                return payment;
+            } catch (DataIntegrityViolationException ex) {
+                // Another node inserted it, the application is already paid, or it does not exist; let the upsert path tell which
+                logger.debug("Direct insert of payment {} hit a constraint, falling back to upsert", paymentDTO.getTransactionId());
+            }
         }
+        Payment payment = transactionTemplate.execute(status -> upsert(paymentDTO));
+        transactionIdFilter.add(paymentDTO.getTransactionId());
+        return payment;
+    }
 
-        // Prevent duplicate transaction id submissions
-        paymentRepository.findByTransactionId(paymentDTO.getTransactionId())
-                .ifPresent(p -> { throw new RuntimeException("This transaction ID was already used"); });
-
+    // Fast path for a transaction id that is certainly new: one INSERT for the payment, one for its outbox event
+    private Payment insertNew(PaymentDTO paymentDTO) {
         Payment payment = new Payment();
-        payment.setApplication(application); // owning side set
+        payment.setApplication(applicationRepository.getReferenceById(paymentDTO.getApplicationId()));
         payment.setAmount(paymentDTO.getAmount());
         payment.setPaymentMethod(paymentDTO.getPaymentMethod());
         payment.setTransactionId(paymentDTO.getTransactionId());
-        payment.setStatus(Payment.PaymentStatus.COMPLETED); // or PENDING if you process asynchronously
+        payment.setStatus(Payment.PaymentStatus.COMPLETED);
         payment.setPaymentDate(new Date());
 
+        Payment saved = paymentRepository.saveAndFlush(payment);
+        paymentOutboxRepository.enqueue(saved.getPaymentId(), paymentDTO.getApplicationId());
+        return saved;
+    }
+
+    private Payment upsert(PaymentDTO paymentDTO) {
         try {
-            // Save payment (owning side). Because cascade = ALL on Application.payment, setting app.setPayment(...) is optional for persistence,
-            // but we set both sides for in-memory consistency.
-            Payment saved = paymentRepository.save(payment);
+            paymentRepository.upsert(paymentDTO.getApplicationId(), paymentDTO.getAmount(),
+                    paymentDTO.getPaymentMethod().name(), Payment.PaymentStatus.COMPLETED.name(),
+                    paymentDTO.getTransactionId(), new Date());
+        } catch (DataIntegrityViolationException ex) {
+            if (isMissingParentRow(ex)) {
+                throw new RuntimeException("Application not found with ID: " + paymentDTO.getApplicationId());
+            }
+            logger.warn("Payment {} violated a constraint: {}", paymentDTO.getTransactionId(), ex.getMostSpecificCause().getMessage());
+            throw new RuntimeException("Invalid payment details");
+        }
 
-            // maintain bidirectional relation and update application payment status
-            application.setPayment(saved);
-            application.setPaymentStatus(Application.PaymentStatus.COMPLETED);
-            applicationRepository.save(application);
+        Long paymentId = paymentRepository.lastInsertId();
+        Payment payment = paymentRepository.findById(paymentId)
+                .orElseThrow(() -> new RuntimeException("Failed to process payment"));
 
-            return saved;
-        } catch (Exception ex) {
-            logger.error("Failed to process payment for application {}: {}", application.getApplicationId(), ex.getMessage(), ex);
-            throw new RuntimeException("Failed to process payment");
+        // The upsert matched an existing row: either a replay of this callback or a clash on one of the unique keys
+        if (!payment.getTransactionId().equals(paymentDTO.getTransactionId())) {
+            throw new RuntimeException("Payment already exists for this application");
+        }
+        if (!payment.getApplication().getApplicationId().equals(paymentDTO.getApplicationId())) {
+            throw new RuntimeException("This transaction ID was already used");
         }
+
+        paymentOutboxRepository.enqueue(payment.getPaymentId(), paymentDTO.getApplicationId());
+        logger.debug("Recorded payment {} for application {}", payment.getPaymentId(), paymentDTO.getApplicationId());
+        return payment;
+    }
+
+    // Unique keys are absorbed by the upsert, and application_id is the only foreign key on payments
+    private static boolean isMissingParentRow(DataIntegrityViolationException ex) {
+        return ex.getMostSpecificCause() instanceof SQLException sqlException
+                && sqlException.getErrorCode() == MYSQL_NO_REFERENCED_ROW;
     }
 }
-// ...existing code...
\ No newline at end of file
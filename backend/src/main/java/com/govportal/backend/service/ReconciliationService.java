@@ -0,0 +1,371 @@
+package com.govportal.backend.service;
+
+import com.govportal.backend.entity.Payment;
+import com.govportal.backend.entity.ReconciliationItem;
+import com.govportal.backend.entity.ReconciliationReport;
+import com.govportal.backend.repository.ReconciliationItemRepository;
+import com.govportal.backend.repository.ReconciliationReportRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reconciles a gateway settlement file (BKASH, NAGAD or ROCKET) against the payments table.
+ * The CSV is streamed once into the settlement_entries staging table with batched inserts, and the
+ * comparison is then done by a handful of set-based INSERT ... SELECT joins, so memory use does not
+ * depend on the size of the file and there are no per-row queries. Findings are kept as
+ * ReconciliationItems under a ReconciliationReport; the staging rows are removed afterwards.
+ * Runs live only in this process: on shutdown queued runs are failed, and on startup any report this node
+ * left RUNNING (a run cut off by a restart) is failed and its staging rows and spooled file are removed.
+ */
+@Service
+public class ReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReconciliationService.class);
+
+    private static final int STAGING_BATCH_SIZE = 5000;
+    private static final int CLEANUP_BATCH_SIZE = 10000;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    // Header names used by the gateways' exports, compared lower-case with punctuation removed
+    private static final Set<String> TRANSACTION_ID_HEADERS = Set.of("transactionid", "trxid", "txnid", "trxnid", "transactionno");
+    private static final Set<String> AMOUNT_HEADERS = Set.of("amount", "transactionamount", "settledamount", "trxamount", "txnamount");
+
+    private static final String INSERT_ITEMS =
+            "INSERT INTO reconciliation_items (report_id, item_type, transaction_id, settled_amount, recorded_amount, payment_id) ";
+
+    private static final long SHUTDOWN_WAIT_SECONDS = 30;
+
+    private final ReconciliationReportRepository reportRepository;
+    private final ReconciliationItemRepository itemRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final String node;
+    private final Path spoolDirectory;
+    // One run at a time per node; the staging joins are heavy enough without competing with each other
+    private final ThreadPoolExecutor runner = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(4), runnable -> {
+                Thread thread = new Thread(runnable, "reconciliation");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private record Run(Long reportId, Path settlementFile, ReconciliationService service) implements Runnable {
+        @Override
+        public void run() {
+            service.run(reportId, settlementFile);
+        }
+    }
+
+    public ReconciliationService(ReconciliationReportRepository reportRepository,
+                                 ReconciliationItemRepository itemRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 @Value("${reconciliation.node-name:}") String nodeName) throws IOException {
+        this.reportRepository = reportRepository;
+        this.itemRepository = itemRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.node = StringUtils.hasText(nodeName) ? nodeName : InetAddress.getLocalHost().getHostName();
+        this.spoolDirectory = Files.createDirectories(Path.of(System.getProperty("java.io.tmpdir"), "reconciliation"));
+    }
+
+    // Fails the runs a previous process on this node left behind
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedRuns() {
+        try {
+            for (Long reportId : reportRepository.findIdsByStatusAndNode(ReconciliationReport.ReportStatus.RUNNING, node)) {
+                logger.warn("Reconciliation {} was interrupted by a restart, marking it failed", reportId);
+                markFailed(reportId, "Interrupted by a server restart. Please upload the file again.");
+                deleteStaging(reportId);
+                deleteSpooled(spoolFile(reportId));
+            }
+        } catch (RuntimeException ex) {
+            logger.warn("Could not clean up interrupted reconciliations: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Spools the uploaded file to a temp file and starts the run in the background. The returned report is
+     * RUNNING; poll getReport until it is COMPLETED or FAILED.
+     */
+    public ReconciliationReport startReconciliation(Payment.PaymentMethod paymentMethod, LocalDate from, LocalDate to,
+                                                    String fileName, InputStream settlementFile) throws IOException {
+        if (from.isAfter(to)) {
+            throw new RuntimeException("The settlement period must start on or before its end.");
+        }
+        ReconciliationReport report = new ReconciliationReport();
+        report.setPaymentMethod(paymentMethod);
+        report.setPeriodFrom(from);
+        report.setPeriodTo(to);
+        report.setFileName(fileName);
+        report.setNode(node);
+        ReconciliationReport saved = reportRepository.save(report);
+
+        // Named after the report so a restart can find and remove it
+        Path spooled = spoolFile(saved.getId());
+        try {
+            Files.copy(settlementFile, spooled, StandardCopyOption.REPLACE_EXISTING);
+            runner.execute(new Run(saved.getId(), spooled, this));
+        } catch (IOException | RuntimeException ex) {
+            reportRepository.delete(saved);
+            Files.deleteIfExists(spooled);
+            if (ex instanceof RejectedExecutionException) {
+                throw new RuntimeException("Too many reconciliations are queued. Please try again later.");
+            }
+            throw ex;
+        }
+        return saved;
+    }
+
+    public ReconciliationReport getReport(Long reportId) {
+        return reportRepository.findById(reportId)
+                .orElseThrow(() -> new RuntimeException("Reconciliation report not found with ID: " + reportId));
+    }
+
+    public List<ReconciliationReport> getRecentReports() {
+        return reportRepository.findTop50ByOrderByIdDesc();
+    }
+
+    public List<ReconciliationItem> getItems(Long reportId, ReconciliationItem.ItemType type, Long afterId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return itemRepository.findPage(reportId, type, afterId != null ? afterId : 0L, Limit.of(pageSize));
+    }
+
+    // Queued runs are failed straight away; the one in progress gets a short grace period to finish
+    @PreDestroy
+    public void shutdown() {
+        List<Runnable> queued = new ArrayList<>();
+        runner.getQueue().drainTo(queued);
+        runner.shutdown();
+        for (Runnable runnable : queued) {
+            if (runnable instanceof Run run) {
+                try {
+                    markFailed(run.reportId(), "Cancelled by a server shutdown. Please upload the file again.");
+                } catch (RuntimeException ex) {
+                    logger.warn("Could not mark queued reconciliation {} failed: {}", run.reportId(), ex.getMessage());
+                }
+                deleteSpooled(run.settlementFile());
+            }
+        }
+        try {
+            if (!runner.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                // Left RUNNING; failInterruptedRuns cleans it up on the next start
+                logger.warn("Reconciliation still running at shutdown, it will be marked failed on the next start");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void markFailed(Long reportId, String error) {
+        reportRepository.findById(reportId).ifPresent(report -> {
+            report.setStatus(ReconciliationReport.ReportStatus.FAILED);
+            report.setError(error);
+            report.setCompletedAt(new Timestamp(System.currentTimeMillis()));
+            reportRepository.save(report);
+        });
+    }
+
+    private Path spoolFile(Long reportId) {
+        return spoolDirectory.resolve("settlement-" + reportId + ".csv");
+    }
+
+    private void deleteSpooled(Path settlementFile) {
+        try {
+            Files.deleteIfExists(settlementFile);
+        } catch (IOException ex) {
+            logger.warn("Could not delete settlement file {}: {}", settlementFile, ex.getMessage());
+        }
+    }
+
+    private void run(Long reportId, Path settlementFile) {
+        ReconciliationReport report = getReport(reportId);
+        String method = report.getPaymentMethod().name();
+        try {
+            stage(report, settlementFile);
+
+            report.setMatched(jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM settlement_entries s " +
+                    "JOIN payments p ON p.transaction_id = s.transaction_id AND p.payment_method = ? " +
+                    "WHERE s.report_id = ? AND p.amount = s.amount", Long.class, method, reportId));
+            report.setAmountMismatches(jdbcTemplate.update(INSERT_ITEMS +
+                    "SELECT s.report_id, 'AMOUNT_MISMATCH', s.transaction_id, s.amount, p.amount, p.payment_id " +
+                    "FROM settlement_entries s " +
+                    "JOIN payments p ON p.transaction_id = s.transaction_id AND p.payment_method = ? " +
+                    "WHERE s.report_id = ? AND p.amount <> s.amount", method, reportId));
+            report.setMissingPayments(jdbcTemplate.update(INSERT_ITEMS +
+                    "SELECT s.report_id, 'MISSING_PAYMENT', s.transaction_id, s.amount, NULL, NULL " +
+                    "FROM settlement_entries s " +
+                    "LEFT JOIN payments p ON p.transaction_id = s.transaction_id AND p.payment_method = ? " +
+                    "WHERE s.report_id = ? AND p.payment_id IS NULL", method, reportId));
+            report.setOrphanPayments(jdbcTemplate.update(INSERT_ITEMS +
+                    "SELECT ?, 'ORPHAN_PAYMENT', p.transaction_id, NULL, p.amount, p.payment_id " +
+                    "FROM payments p " +
+                    "LEFT JOIN settlement_entries s ON s.report_id = ? AND s.transaction_id = p.transaction_id " +
+                    "WHERE p.payment_method = ? AND p.status = 'COMPLETED' " +
+                    "AND p.payment_date >= ? AND p.payment_date < ? AND s.entry_id IS NULL",
+                    reportId, reportId, method, Date.valueOf(report.getPeriodFrom()), Date.valueOf(report.getPeriodTo().plusDays(1))));
+            report.setDuplicateEntries(jdbcTemplate.update(INSERT_ITEMS +
+                    "SELECT s.report_id, 'DUPLICATE_ENTRY', s.transaction_id, s.amount, NULL, NULL " +
+                    "FROM settlement_entries s WHERE s.report_id = ? AND s.occurrences > 1", reportId));
+
+            report.setStatus(ReconciliationReport.ReportStatus.COMPLETED);
+            logger.info("Reconciliation {} ({}) finished: {} rows, {} matched, {} mismatched, {} missing, {} orphans",
+                    reportId, method, report.getTotalRows(), report.getMatched(), report.getAmountMismatches(),
+                    report.getMissingPayments(), report.getOrphanPayments());
+        } catch (Exception ex) {
+            logger.error("Reconciliation {} failed: {}", reportId, ex.getMessage(), ex);
+            report.setStatus(ReconciliationReport.ReportStatus.FAILED);
+            String message = String.valueOf(ex.getMessage());
+            report.setError(message.length() > 1000 ? message.substring(0, 1000) : message);
+        } finally {
+            report.setCompletedAt(new Timestamp(System.currentTimeMillis()));
+            reportRepository.save(report);
+            deleteStaging(reportId);
+            deleteSpooled(settlementFile);
+        }
+    }
+
+    // Streams the CSV into settlement_entries in batches; a repeated transaction id bumps occurrences instead
+    private void stage(ReconciliationReport report, Path settlementFile) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(settlementFile, StandardCharsets.UTF_8)) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                throw new RuntimeException("The settlement file is empty.");
+            }
+            List<String> header = splitCsvLine(headerLine.replace("\uFEFF", ""));
+            int transactionIdColumn = findColumn(header, TRANSACTION_ID_HEADERS);
+            int amountColumn = findColumn(header, AMOUNT_HEADERS);
+            if (transactionIdColumn < 0 || amountColumn < 0) {
+                throw new RuntimeException("The settlement file needs a transaction id and an amount column.");
+            }
+
+            List<Object[]> batch = new ArrayList<>(STAGING_BATCH_SIZE);
+            long totalRows = 0;
+            long malformedRows = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                totalRows++;
+                List<String> fields = splitCsvLine(line);
+                if (fields.size() <= Math.max(transactionIdColumn, amountColumn)) {
+                    malformedRows++;
+                    continue;
+                }
+                String transactionId = fields.get(transactionIdColumn).trim();
+                BigDecimal amount = parseAmount(fields.get(amountColumn));
+                if (transactionId.isEmpty() || amount == null) {
+                    malformedRows++;
+                    continue;
+                }
+                batch.add(new Object[]{report.getId(), transactionId, amount});
+                if (batch.size() == STAGING_BATCH_SIZE) {
+                    insertStaging(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                insertStaging(batch);
+            }
+            report.setTotalRows(totalRows);
+            report.setMalformedRows(malformedRows);
+        }
+    }
+
+    private void insertStaging(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO settlement_entries (report_id, transaction_id, amount, occurrences) VALUES (?, ?, ?, 1) " +
+                "ON DUPLICATE KEY UPDATE occurrences = occurrences + 1", batch);
+    }
+
+    // Removes the staging rows in chunks so a multi-million row file does not become one huge delete
+    private void deleteStaging(Long reportId) {
+        try {
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update("DELETE FROM settlement_entries WHERE report_id = ? LIMIT " + CLEANUP_BATCH_SIZE, reportId);
+            } while (deleted == CLEANUP_BATCH_SIZE);
+        } catch (RuntimeException ex) {
+            logger.warn("Could not clean up staging rows of reconciliation {}: {}", reportId, ex.getMessage());
+        }
+    }
+
+    private static int findColumn(List<String> header, Set<String> names) {
+        for (int i = 0; i < header.size(); i++) {
+            String normalized = header.get(i).toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+            if (names.contains(normalized)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static BigDecimal parseAmount(String value) {
+        String cleaned = value.replace(",", "").trim();
+        if (!StringUtils.hasText(cleaned)) {
+            return null;
+        }
+        try {
+            return new BigDecimal(cleaned);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    // Minimal RFC 4180 field splitter: commas inside double quotes and "" escapes are honoured
+    private static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
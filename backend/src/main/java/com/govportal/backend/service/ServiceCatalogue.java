@@ -0,0 +1,143 @@
+package com.govportal.backend.service;
+
+import com.govportal.backend.entity.Service;
+import com.govportal.backend.repository.ServiceRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-through, in-process copy of the (small, rarely changing) services table.
+ * The snapshot is immutable and swapped as a whole; writes to Service invalidate it after commit
+ * (see ServiceCatalogueListener) and an unknown id triggers one reload before giving up. Service ids come from
+ * clients, so misses reload at most once per MISS_RELOAD_INTERVAL_MS; other unknown ids fail from the snapshot.
+ */
+@Component
+public class ServiceCatalogue {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServiceCatalogue.class);
+
+    private static final long MISS_RELOAD_INTERVAL_MS = 5000;
+
+    private final ServiceRepository serviceRepository;
+    private volatile Map<Long, Entry> entries;
+    private long loadedAt;
+
+    public ServiceCatalogue(ServiceRepository serviceRepository) {
+        this.serviceRepository = serviceRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            load();
+        } catch (Exception ex) {
+            logger.warn("Could not load the service catalogue at startup, it will be loaded on first use: {}", ex.getMessage());
+        }
+    }
+
+    public Entry get(Long serviceId) {
+        Map<Long, Entry> snapshot = entries;
+        Entry entry = snapshot != null ? snapshot.get(serviceId) : null;
+        if (entry == null && serviceId != null) {
+            // Not loaded yet, or the service was added outside this application
+            entry = reloadOnMiss(snapshot).get(serviceId);
+        }
+        if (entry == null) {
+            throw new RuntimeException("Service not found with ID: " + serviceId);
+        }
+        return entry;
+    }
+
+    public String getServiceName(Long serviceId) {
+        return get(serviceId).getServiceName();
+    }
+
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries = null;
+                }
+            });
+        } else {
+            entries = null;
+        }
+    }
+
+    private synchronized Map<Long, Entry> reloadOnMiss(Map<Long, Entry> seen) {
+        Map<Long, Entry> current = entries;
+        if (current == null) {
+            return load();
+        }
+        if (current != seen || System.currentTimeMillis() - loadedAt < MISS_RELOAD_INTERVAL_MS) {
+            // Reloaded while this caller waited, or recently enough that the id is genuinely unknown
+            return current;
+        }
+        return load();
+    }
+
+    private synchronized Map<Long, Entry> load() {
+        Map<Long, Entry> loaded = new HashMap<>();
+        for (Service service : serviceRepository.findAll()) {
+            loaded.put(service.getServiceId(), new Entry(service.getServiceId(), service.getServiceName(),
+                    service.getDescription(), service.getFee(), parseKeys(service.getIndexedDataKeys())));
+        }
+        entries = Collections.unmodifiableMap(loaded);
+        loadedAt = System.currentTimeMillis();
+        return entries;
+    }
+
+    public Collection<Entry> getAll() {
+        Map<Long, Entry> snapshot = entries;
+        return (snapshot != null ? snapshot : load()).values();
+    }
+
+    private static List<String> parseKeys(String keys) {
+        if (!StringUtils.hasText(keys)) {
+            return List.of();
+        }
+        return Arrays.stream(keys.split(","))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .distinct()
+                .toList();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Entry {
+        private final Long serviceId;
+        private final String serviceName;
+        private final String description;
+        private final BigDecimal fee;
+        private final List<String> indexedDataKeys;
+
+        // Detached copy that can be assigned to an association without loading the row; Hibernate only needs the id
+        public Service toEntity() {
+            Service service = new Service();
+            service.setServiceId(serviceId);
+            service.setServiceName(serviceName);
+            service.setDescription(description);
+            service.setFee(fee);
+            service.setIndexedDataKeys(indexedDataKeys.isEmpty() ? null : String.join(",", indexedDataKeys));
+            return service;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.govportal.backend.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Result of FileStorageService.storeFile: the name to keep in Document.filePath plus what was written
+@Getter
+@AllArgsConstructor
+public final class StoredFile {
+    private final String storedName;
+    // SHA-256 of the content, computed while it was written
+    private final String contentHash;
+    private final long size;
+}
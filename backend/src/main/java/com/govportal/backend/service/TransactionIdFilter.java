@@ -0,0 +1,156 @@
+package com.govportal.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory Bloom filter over the payment transaction ids this node has seen. "No" lets PaymentService take
+ * the plain insert path without looking anything up; "maybe" (and every id before the filter is warmed) goes
+ * to the upsert. "No" is only definite for this node: an id first recorded by another node since the last
+ * rebuild also answers "no", so a replay of it reaching this node tries the plain insert, fails on the unique
+ * constraint on transaction_id, rolls back and then takes the upsert. That costs one failed insert per
+ * cross-node replay; the unique constraint stays the final guard either way.
+ */
+@Component
+public class TransactionIdFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionIdFilter.class);
+
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    @Value("${payments.bloom.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${payments.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // null until the first warm-up has finished, in which case every id is a possible hit
+    private volatile Bits active;
+    // The filter being rebuilt; ids added meanwhile go into both so none are lost in the swap
+    private volatile Bits warming;
+
+    public TransactionIdFilter(JdbcTemplate jdbcTemplate) {
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        // MySQL streams rows one by one only with this fetch size
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            rebuild();
+        } catch (Exception ex) {
+            logger.warn("Could not warm the transaction id filter, all payments will be checked in the database: {}", ex.getMessage());
+        }
+    }
+
+    // Resizes the filter once more ids were added than it was sized for, before the false-positive rate climbs
+    @Scheduled(fixedDelayString = "${payments.bloom.check-interval-ms:3600000}", initialDelayString = "${payments.bloom.check-interval-ms:3600000}")
+    public void rebuildIfSaturated() {
+        Bits bits = active;
+        if (bits == null || bits.insertions.get() > bits.capacity) {
+            warmUp();
+        }
+    }
+
+    public boolean mightContain(String transactionId) {
+        Bits bits = active;
+        return bits == null || bits.mightContain(transactionId);
+    }
+
+    public void add(String transactionId) {
+        // Read warming before active: rebuild() publishes active before clearing warming
+        Bits rebuilding = warming;
+        if (rebuilding != null) {
+            rebuilding.add(transactionId);
+        }
+        Bits bits = active;
+        if (bits != null) {
+            bits.add(transactionId);
+        }
+    }
+
+    private synchronized void rebuild() {
+        long rows = streamingJdbcTemplate.queryForObject("SELECT COUNT(*) FROM payments", Long.class);
+        Bits bits = new Bits(Math.max(expectedInsertions, rows * 2), falsePositiveRate);
+        warming = bits;
+        try {
+            streamingJdbcTemplate.query("SELECT transaction_id FROM payments", rs -> {
+                bits.add(rs.getString(1));
+            });
+            active = bits;
+        } finally {
+            warming = null;
+        }
+        logger.info("Transaction id filter loaded with {} payments ({} bits, {} hashes)", rows, bits.bitCount, bits.hashCount);
+    }
+
+    private static final class Bits {
+
+        private final long capacity;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLongArray words;
+        private final AtomicLong insertions = new AtomicLong();
+
+        Bits(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) Math.min(Integer.MAX_VALUE, (bits + 63) / 64));
+            this.bitCount = (long) words.length() * 64;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+        }
+
+        void add(String value) {
+            long hash = fnv1a(value);
+            long h1 = mix(hash);
+            long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                words.getAndAccumulate((int) (bit >>> 6), 1L << bit, (existing, mask) -> existing | mask);
+            }
+            insertions.incrementAndGet();
+        }
+
+        boolean mightContain(String value) {
+            long hash = fnv1a(value);
+            long h1 = mix(hash);
+            long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long fnv1a(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+
+        // MurmurHash3 finalizer, spreads FNV's weak low bits
+        private static long mix(long hash) {
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
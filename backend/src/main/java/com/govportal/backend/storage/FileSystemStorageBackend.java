@@ -0,0 +1,84 @@
+package com.govportal.backend.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+// Objects are plain files under file.upload-dir; put() is an atomic rename, so uploads are written once
+@Component
+@ConditionalOnProperty(name = "file.storage-backend", havingValue = "filesystem", matchIfMissing = true)
+public class FileSystemStorageBackend implements StorageBackend {
+
+    private final Path root;
+
+    public FileSystemStorageBackend(@Value("${file.upload-dir}") String uploadDir) {
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void put(String key, Path source) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        return Files.newInputStream(existing(key));
+    }
+
+    @Override
+    public void stream(String key, OutputStream outputStream) throws IOException {
+        Files.copy(existing(key), outputStream);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        return Files.size(existing(key));
+    }
+
+    @Override
+    public long lastModified(String key) throws IOException {
+        return Files.getLastModifiedTime(existing(key)).toMillis();
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return existing(key);
+    }
+
+    // Refuses keys that would escape the upload directory
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root)) {
+            throw new RuntimeException("Invalid file path " + key);
+        }
+        return path;
+    }
+
+    private Path existing(String key) {
+        Path path = resolve(key);
+        if (!Files.isRegularFile(path)) {
+            throw new RuntimeException("File not found " + key);
+        }
+        return path;
+    }
+}
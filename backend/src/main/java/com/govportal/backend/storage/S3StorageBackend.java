@@ -0,0 +1,216 @@
+package com.govportal.backend.storage;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Stores documents in an S3-compatible object store so several backend replicas can share them.
+ * Files larger than one part are sent as a multipart upload with the parts transferred in parallel.
+ * Works against MinIO and similar stand-ins via storage.s3.endpoint and storage.s3.path-style-access.
+ */
+@Component
+@ConditionalOnProperty(name = "file.storage-backend", havingValue = "s3")
+public class S3StorageBackend implements StorageBackend {
+
+    private static final Logger logger = LoggerFactory.getLogger(S3StorageBackend.class);
+
+    private final S3Client s3Client;
+    private final String bucket;
+    private final long partSize;
+    private final ExecutorService partUploader;
+
+    public S3StorageBackend(@Value("${storage.s3.bucket}") String bucket,
+                            @Value("${storage.s3.region:us-east-1}") String region,
+                            @Value("${storage.s3.endpoint:}") String endpoint,
+                            @Value("${storage.s3.path-style-access:false}") boolean pathStyleAccess,
+                            @Value("${storage.s3.access-key:}") String accessKey,
+                            @Value("${storage.s3.secret-key:}") String secretKey,
+                            @Value("${storage.s3.part-size:8388608}") long partSize,
+                            @Value("${storage.s3.upload-parallelism:4}") int uploadParallelism,
+                            @Value("${storage.s3.create-bucket:false}") boolean createBucket) {
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(region))
+                .forcePathStyle(pathStyleAccess);
+        if (StringUtils.hasText(endpoint)) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        builder.credentialsProvider(StringUtils.hasText(accessKey)
+                ? StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey))
+                : DefaultCredentialsProvider.builder().build());
+
+        this.s3Client = builder.build();
+        this.bucket = bucket;
+        // S3 requires every part except the last to be at least 5 MiB
+        this.partSize = Math.max(partSize, 5L * 1024 * 1024);
+        this.partUploader = Executors.newFixedThreadPool(uploadParallelism);
+
+        if (createBucket) {
+            ensureBucket();
+        }
+    }
+
+    @Override
+    public void put(String key, Path source) throws IOException {
+        long size = Files.size(source);
+        if (size <= partSize) {
+            s3Client.putObject(request -> request.bucket(bucket).key(key), RequestBody.fromFile(source));
+            return;
+        }
+
+        String uploadId = s3Client.createMultipartUpload(request -> request.bucket(bucket).key(key)).uploadId();
+        try {
+            List<Future<CompletedPart>> parts = new ArrayList<>();
+            int partNumber = 1;
+            for (long offset = 0; offset < size; offset += partSize, partNumber++) {
+                long length = Math.min(partSize, size - offset);
+                long partOffset = offset;
+                int currentPart = partNumber;
+                parts.add(partUploader.submit(() -> uploadPart(key, uploadId, source, currentPart, partOffset, length)));
+            }
+
+            List<CompletedPart> completedParts = new ArrayList<>();
+            for (Future<CompletedPart> part : parts) {
+                completedParts.add(part.get());
+            }
+            s3Client.completeMultipartUpload(request -> request.bucket(bucket).key(key).uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build()));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            abort(key, uploadId);
+            throw new IOException("Interrupted while uploading " + key, ex);
+        } catch (ExecutionException | RuntimeException ex) {
+            abort(key, uploadId);
+            throw new IOException("Multipart upload of " + key + " failed", ex);
+        }
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        try {
+            return s3Client.getObject(request -> request.bucket(bucket).key(key));
+        } catch (NoSuchKeyException ex) {
+            throw new RuntimeException("File not found " + key);
+        }
+    }
+
+    @Override
+    public void stream(String key, OutputStream outputStream) throws IOException {
+        try (InputStream inputStream = get(key)) {
+            inputStream.transferTo(outputStream);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        try {
+            head(key);
+            return true;
+        } catch (NoSuchKeyException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public long size(String key) {
+        return head(key).contentLength();
+    }
+
+    @Override
+    public long lastModified(String key) {
+        return head(key).lastModified().toEpochMilli();
+    }
+
+    @Override
+    public void delete(String key) {
+        s3Client.deleteObject(request -> request.bucket(bucket).key(key));
+    }
+
+    @PreDestroy
+    public void close() {
+        partUploader.shutdown();
+        s3Client.close();
+    }
+
+    private CompletedPart uploadPart(String key, String uploadId, Path source, int partNumber, long offset, long length)
+            throws IOException {
+        // Only one part per worker is held in memory: partSize * upload-parallelism in total
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    break;
+                }
+            }
+        }
+        buffer.flip();
+        String eTag = s3Client.uploadPart(request -> request.bucket(bucket).key(key).uploadId(uploadId)
+                .partNumber(partNumber).contentLength(length), RequestBody.fromByteBuffer(buffer)).eTag();
+        return CompletedPart.builder().partNumber(partNumber).eTag(eTag).build();
+    }
+
+    private HeadObjectResponse head(String key) {
+        try {
+            return s3Client.headObject(request -> request.bucket(bucket).key(key));
+        } catch (S3Exception ex) {
+            if (ex.statusCode() == 404) {
+                throw NoSuchKeyException.builder().message("File not found " + key).build();
+            }
+            throw ex;
+        }
+    }
+
+    private void abort(String key, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(request -> request.bucket(bucket).key(key).uploadId(uploadId));
+        } catch (RuntimeException ex) {
+            logger.warn("Could not abort multipart upload {} for {}: {}", uploadId, key, ex.getMessage());
+        }
+    }
+
+    private void ensureBucket() {
+        try {
+            s3Client.headBucket(request -> request.bucket(bucket));
+        } catch (NoSuchBucketException ex) {
+            s3Client.createBucket(request -> request.bucket(bucket));
+        } catch (S3Exception ex) {
+            if (ex.statusCode() != 404) {
+                throw ex;
+            }
+            s3Client.createBucket(request -> request.bucket(bucket));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.govportal.backend.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+/**
+ * Where document bytes live. FileStorageService stages uploads in a local temp file (to hash them) and then
+ * hands them to the configured backend under a key such as "ab/cd/&lt;sha256&gt;".
+ * Selected with file.storage-backend: "filesystem" (default) or "s3".
+ */
+public interface StorageBackend {
+
+    // Stores the staged file under key. The backend may move the source instead of copying it.
+    void put(String key, Path source) throws IOException;
+
+    InputStream get(String key) throws IOException;
+
+    // Copies the object to the given stream
+    void stream(String key, OutputStream outputStream) throws IOException;
+
+    boolean exists(String key) throws IOException;
+
+    long size(String key) throws IOException;
+
+    long lastModified(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    // The object as a local file, when there is one (enables zero-copy serving); null otherwise
+    default Path localPath(String key) {
+        return null;
+    }
+}
@@ -0,0 +1,52 @@
+package com.govportal.backend.storage;
+
+import org.springframework.core.io.AbstractResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// A stored document on a remote backend; the content is streamed on demand and never buffered in memory
+public class StoredObjectResource extends AbstractResource {
+
+    private final StorageBackend storageBackend;
+    private final String key;
+
+    public StoredObjectResource(StorageBackend storageBackend, String key) {
+        this.storageBackend = storageBackend;
+        this.key = key;
+    }
+
+    @Override
+    public boolean exists() {
+        try {
+            return storageBackend.exists(key);
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        return storageBackend.size(key);
+    }
+
+    @Override
+    public long lastModified() throws IOException {
+        return storageBackend.lastModified(key);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return storageBackend.get(key);
+    }
+
+    @Override
+    public String getFilename() {
+        return key.substring(key.lastIndexOf('/') + 1);
+    }
+
+    @Override
+    public String getDescription() {
+        return "Stored object [" + key + "]";
+    }
+}
@@ -154,6 +154,20 @@ const API = {
         }
         return response.text();
     },
+    uploadDocuments: async (formData, token) => {
+        const response = await fetch(`${API_BASE_URL}/api/documents/upload-batch`, {
+            method: 'POST',
+            headers: {
+                'Authorization': `Bearer ${token}`
+            },
+            body: formData,
+        });
+        if (!response.ok) {
+            const errorText = await response.text();
+            throw new Error(errorText || 'Document upload failed');
+        }
+        return response.json();
+    },
     submitFeedback: async (data, token) => {
         const headers = { 'Content-Type': 'application/json' };
         if (token) {
@@ -170,14 +184,18 @@ const API = {
         }
         return response.json();
     },
-    getAllApplications: async (token) => {
-        const response = await fetch(`${API_BASE_URL}/api/admin/applications`, {
+    // One page of applications (oldest first); pass nextCursor back as afterId to get the following page
+    getAllApplications: async (token, { afterId, status } = {}) => {
+        const params = new URLSearchParams();
+        if (afterId) params.append('afterId', afterId);
+        if (status) params.append('status', status);
+        const response = await fetch(`${API_BASE_URL}/api/admin/applications?${params}`, {
             headers: { 'Authorization': `Bearer ${token}` }
         });
         if (!response.ok) {
             throw new Error('Failed to fetch all applications');
         }
-        return response.json();
+        return { items: await response.json(), nextCursor: response.headers.get('X-Next-Cursor') };
     },
     getApplicationStats: async (token) => {
         const response = await fetch(`${API_BASE_URL}/api/admin/stats`, {
@@ -210,9 +228,21 @@ const API = {
         }
         return response.json();
     },
-    // Add these two new methods
-    getFeedback: async (token) => {
-        const response = await fetch(`${API_BASE_URL}/api/feedback`, {
+    // One page of feedback (newest first, messages cut to a preview); pass nextCursor back as beforeId for older items
+    getFeedback: async (token, { beforeId } = {}) => {
+        const params = new URLSearchParams();
+        if (beforeId) params.append('beforeId', beforeId);
+        const response = await fetch(`${API_BASE_URL}/api/feedback?${params}`, {
+            headers: { 'Authorization': `Bearer ${token}` }
+        });
+        if (!response.ok) {
+            throw new Error('Failed to fetch feedback');
+        }
+        return { items: await response.json(), nextCursor: response.headers.get('X-Next-Cursor') };
+    },
+    // A single feedback item with its full message
+    getFeedbackItem: async (id, token) => {
+        const response = await fetch(`${API_BASE_URL}/api/feedback/${id}`, {
             headers: { 'Authorization': `Bearer ${token}` }
         });
         if (!response.ok) {
@@ -633,24 +663,19 @@ const ApplicationPage = () => {
         try {
             const newApplication = await API.createApplication(applicationData, token);
 
-            const uploadPromises = [];
-            if (documents.NID_COPY) {
-                const formData = new FormData();
-                formData.append('file', documents.NID_COPY);
-                formData.append('applicationId', newApplication.applicationId);
-                formData.append('documentType', 'NID_COPY');
-                uploadPromises.push(API.uploadDocument(formData, token));
-            }
-            if (documents.PASSPORT_PHOTO) {
-                const formData = new FormData();
-                formData.append('file', documents.PASSPORT_PHOTO);
-                formData.append('applicationId', newApplication.applicationId);
-                formData.append('documentType', 'PASSPORT_PHOTO');
-                uploadPromises.push(API.uploadDocument(formData, token));
+            // All documents go up in one request
+            const formData = new FormData();
+            formData.append('applicationId', newApplication.applicationId);
+            ['NID_COPY', 'PASSPORT_PHOTO'].forEach(documentType => {
+                if (documents[documentType]) {
+                    formData.append('files', documents[documentType]);
+                    formData.append('documentTypes', documentType);
+                }
+            });
+            if (formData.has('files')) {
+                await API.uploadDocuments(formData, token);
             }
 
-            await Promise.all(uploadPromises);
-
             alert('Application and documents submitted successfully!');
             navigate('dashboard');
         } catch (error) {
@@ -1086,7 +1111,11 @@ const ServiceAnalyticsChart = ({ data }) => {
 const AdminDashboard = () => {
     const [stats, setStats] = useState({ total: 0, approved: 0, rejected: 0, pending: 0 });
     const [applications, setApplications] = useState([]);
+    const [appsCursor, setAppsCursor] = useState(null);
+    const [loadingMoreApps, setLoadingMoreApps] = useState(false);
     const [feedback, setFeedback] = useState([]);
+    const [feedbackCursor, setFeedbackCursor] = useState(null);
+    const [loadingMoreFeedback, setLoadingMoreFeedback] = useState(false);
     const [filteredApps, setFilteredApps] = useState([]);
     const [filter, setFilter] = useState('ALL');
     const [searchTerm, setSearchTerm] = useState('');
@@ -1099,15 +1128,19 @@ const AdminDashboard = () => {
         if (!token) { setLoading(false); return; }
 
         try {
-            const [statsData, appsData, feedbackData] = await Promise.all([
+            // The status filter is applied by the server so pending applications are never hidden behind older pages
+            const [statsData, appsPage, feedbackPage] = await Promise.all([
                 API.getApplicationStats(token),
-                API.getAllApplications(token),
-                API.getFeedback(token) // CHANGE THIS LINE
+                API.getAllApplications(token, { status: filter === 'ALL' ? undefined : filter }),
+                API.getFeedback(token)
             ]);
+            const appsData = appsPage.items;
             setStats(statsData);
             setApplications(appsData);
+            setAppsCursor(appsPage.nextCursor);
             setFilteredApps(appsData);
-            setFeedback(feedbackData);
+            setFeedback(feedbackPage.items);
+            setFeedbackCursor(feedbackPage.nextCursor);
 
             const serviceCounts = appsData.reduce((acc, app) => {
                 acc[app.serviceName] = (acc[app.serviceName] || 0) + 1;
@@ -1122,7 +1155,21 @@ const AdminDashboard = () => {
         }
     };
 
-    useEffect(() => { fetchData(); }, []);
+    useEffect(() => { fetchData(); }, [filter]);
+
+    const handleLoadMoreApps = async () => {
+        const token = localStorage.getItem('token');
+        setLoadingMoreApps(true);
+        try {
+            const page = await API.getAllApplications(token, { afterId: appsCursor, status: filter === 'ALL' ? undefined : filter });
+            setApplications(prev => [...prev, ...page.items]);
+            setAppsCursor(page.nextCursor);
+        } catch (error) {
+            alert(`Error: ${error.message}`);
+        } finally {
+            setLoadingMoreApps(false);
+        }
+    };
 
     useEffect(() => {
         let tempApps = applications;
@@ -1223,12 +1270,37 @@ const AdminDashboard = () => {
         }
     };
 
-    // UPDATE THIS FUNCTION
+    const handleLoadMoreFeedback = async () => {
+        const token = localStorage.getItem('token');
+        setLoadingMoreFeedback(true);
+        try {
+            const page = await API.getFeedback(token, { beforeId: feedbackCursor });
+            setFeedback(prev => [...prev, ...page.items]);
+            setFeedbackCursor(page.nextCursor);
+        } catch (error) {
+            alert(`Error: ${error.message}`);
+        } finally {
+            setLoadingMoreFeedback(false);
+        }
+    };
+
+    // Inbox pages only carry a preview of long messages
+    const handleShowFullMessage = async (feedbackId) => {
+        const token = localStorage.getItem('token');
+        try {
+            const full = await API.getFeedbackItem(feedbackId, token);
+            setFeedback(prev => prev.map(item => item.id === feedbackId ? { ...item, message: full.message, messageTruncated: false } : item));
+        } catch (error) {
+            alert(`Error: ${error.message}`);
+        }
+    };
+
+    // Updated in place so the pages already loaded are kept
     const handleFeedbackStatusChange = async (feedbackId, newStatus) => {
         const token = localStorage.getItem('token');
         try {
-            await API.updateFeedbackStatus(feedbackId, newStatus, token);
-            fetchData();
+            const updated = await API.updateFeedbackStatus(feedbackId, newStatus, token);
+            setFeedback(prev => prev.map(item => item.id === feedbackId ? { ...item, status: updated.status, updatedAt: updated.updatedAt } : item));
         } catch (error) {
             alert(`Error updating feedback status: ${error.message}`);
         }
@@ -1261,13 +1333,20 @@ const AdminDashboard = () => {
                 <div className="overflow-x-auto -mx-6 md:-mx-8"><table className="min-w-full"><thead className="border-b-2 border-gray-200"><tr><th className="px-6 py-3 text-left text-sm font-semibold text-gray-600 uppercase tracking-wider">User ID</th><th className="px-6 py-3 text-left text-sm font-semibold text-gray-600 uppercase tracking-wider">Application ID</th><th className="px-6 py-3 text-left text-sm font-semibold text-gray-600 uppercase tracking-wider">Service</th><th className="px-6 py-3 text-left text-sm font-semibold text-gray-600 uppercase tracking-wider">Date</th><th className="px-6 py-3 text-left text-sm font-semibold text-gray-600 uppercase tracking-wider">App Status</th><th className="px-6 py-3 text-left text-sm font-semibold text-gray-600 uppercase tracking-wider">Payment</th><th className="px-6 py-3 text-left text-sm font-semibold text-gray-600 uppercase tracking-wider">Actions</th></tr></thead><tbody className="divide-y divide-gray-100">
                     {filteredApps.map(app => (<tr key={app.applicationId} className="hover:bg-gray-50/50 transition-colors"><td className="px-6 py-4 whitespace-nowrap text-md text-gray-500">{app.userId}</td><td className="px-6 py-4 whitespace-nowrap text-md text-gray-500">{app.applicationId}</td><td className="px-6 py-4 whitespace-nowrap text-md font-medium text-[#4E2A2A]">{app.serviceName}</td><td className="px-6 py-4 whitespace-nowrap text-md text-gray-500">{app.submissionDate}</td><td className="px-6 py-4 whitespace-nowrap text-md"><StatusBadge status={app.status} /></td><td className="px-6 py-4 whitespace-nowrap text-md"><StatusBadge status={app.paymentStatus} /></td><td className="px-6 py-4 whitespace-nowrap text-md font-medium space-x-2"><Button onClick={() => handleDownload(app)} variant="primary" className="w-auto px-3 py-1 text-xs"><Download size={12} className="mr-1" />Download</Button>{app.status === 'PENDING' && app.paymentStatus === 'COMPLETED' ? (<><Button onClick={() => handleApprove(app.applicationId)} variant="success" className="w-auto px-3 py-1 text-xs">Approve</Button><Button onClick={() => handleReject(app.applicationId)} variant="danger" className="w-auto px-3 py-1 text-xs">Reject</Button></>) : app.paymentStatus === 'PENDING' ? (<span className="text-xs text-gray-400">Awaiting Payment</span>) : <span className="text-gray-400">--</span>}</td></tr>))}
                 </tbody></table></div>
+                {appsCursor && (
+                    <div className="mt-6 flex justify-center">
+                        <Button onClick={handleLoadMoreApps} disabled={loadingMoreApps} variant="secondary" className="w-auto px-6 py-2 text-sm">
+                            {loadingMoreApps ? 'Loading...' : 'Load more applications'}
+                        </Button>
+                    </div>
+                )}
             </AnimatedCard>
             <AnimatedCard delay={600}>
                 <h3 className="text-2xl font-bold text-[#4E2A2A] mb-4">Feedback Submissions</h3>
                 {feedback.length > 0 ? (
                     <div className="overflow-x-auto -mx-6 md:-mx-8"><table className="min-w-full"><thead className="border-b-2 border-gray-200"><tr><th className="px-6 py-3 text-left text-sm font-semibold text-gray-600 uppercase tracking-wider">Date</th><th className="px-6 py-3 text-left text-sm font-semibold text-gray-600 uppercase tracking-wider">Last Updated</th><th className="px-6 py-3 text-left text-sm font-semibold text-gray-600 uppercase tracking-wider">Type</th><th className="px-6 py-3 text-left text-sm font-semibold text-gray-600 uppercase tracking-wider">Subject</th><th className="px-6 py-3 text-left text-sm font-semibold text-gray-600 uppercase tracking-wider">Message</th><th className="px-6 py-3 text-left text-sm font-semibold text-gray-600 uppercase tracking-wider">Status</th></tr></thead><tbody className="divide-y divide-gray-100">
                         {feedback.map(item => (<tr key={item.id} className="hover:bg-gray-50/50 transition-colors"><td className="px-6 py-4 whitespace-nowrap text-md text-gray-500">{new Date(item.submissionDate).toLocaleDateString()}</td>
-                            <td className="px-6 py-4 whitespace-nowrap text-md text-gray-500">{new Date(item.updatedAt).toLocaleDateString()}</td><td className="px-6 py-4 whitespace-nowrap text-md font-medium text-[#4E2A2A]">{item.feedbackType}</td><td className="px-6 py-4 whitespace-nowrap text-md text-gray-500">{item.subject}</td><td className="px-6 py-4 text-md text-gray-500"><p className="w-48 truncate" title={item.message}>{item.message}</p></td>
+                            <td className="px-6 py-4 whitespace-nowrap text-md text-gray-500">{new Date(item.updatedAt).toLocaleDateString()}</td><td className="px-6 py-4 whitespace-nowrap text-md font-medium text-[#4E2A2A]">{item.feedbackType}</td><td className="px-6 py-4 whitespace-nowrap text-md text-gray-500">{item.subject}</td><td className="px-6 py-4 text-md text-gray-500">{item.messageTruncated ? (<><p className="w-48 truncate">{item.message}</p><button type="button" onClick={() => handleShowFullMessage(item.id)} className="text-xs text-[#E97451] hover:underline">Show full message</button></>) : <p className="w-48 whitespace-pre-wrap break-words">{item.message}</p>}</td>
                             <td className="px-6 py-4 whitespace-nowrap text-md">
                                 <Select
                                     value={item.status}
@@ -1279,6 +1358,13 @@ const AdminDashboard = () => {
                         </tr>))}
                     </tbody></table></div>
                 ) : <p className="text-center text-gray-500 py-8">No feedback has been submitted yet.</p>}
+                {feedbackCursor && (
+                    <div className="mt-6 flex justify-center">
+                        <Button onClick={handleLoadMoreFeedback} disabled={loadingMoreFeedback} variant="secondary" className="w-auto px-6 py-2 text-sm">
+                            {loadingMoreFeedback ? 'Loading...' : 'Load older feedback'}
+                        </Button>
+                    </div>
+                )}
             </AnimatedCard>
         </div>
     );